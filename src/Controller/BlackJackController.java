@@ -1,24 +1,23 @@
 package Controller;
 
 import Model.*;
+import View.AssetLoader;
 import View.BlackJackView;
 
 import javax.swing.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.List;
-import java.util.Map;
-import java.util.Observable;
-import java.util.Observer;
 /**
  * Controller per il gioco del BlackJack.
  * Gestisce la logica del gioco e l'interazione tra il modello e la vista.
  */
-public class BlackJackController implements Observer
+public class BlackJackController
 {
     private BlackJackView view;
     private BlackJackGame model;
     private AudioManager audioManager;
+    private final SnapshotCoalescer snapshots; // Un aggiornamento della vista per passo logico
     private int gameNumber = 1;
 
     //Booleani per tenere traccia dei tasti premuti
@@ -37,72 +36,61 @@ public class BlackJackController implements Observer
         this.model = model;
         this.audioManager = new AudioManager();
 
-        model.addObserver(this);
-        //Registrazione della vista come osservatore del modello
-        model.addObserver(view); // Add the view as an observer of the model
+        //Gli eventi del modello vengono aggregati e applicati alla vista una volta per frame di Swing
+        this.snapshots = new SnapshotCoalescer(model, SwingUtilities::invokeLater, this::applySnapshot);
 
         view.addStartButtonListener(new StartButtonListener());
         view.addHitListener(new HitButtonListener());
         view.addStandListener(new StandButtonListener());
         view.addDoubleDownListener(new DoubleDownButtonListener());
         view.addSplitListener(new SplitButtonListener());
+        view.addHintListener(new HintButtonListener());
         view.addRestartButtonListener(new RestartButtonListener());
 
-        audioManager.loopSound("src/Music/BackgroundMusic.wav");
-        audioManager.setVolume(-20.0f);
+        // La musica parte appena il file è caricato in background, senza bloccare l'avvio;
+        // il clip viene avviato sul thread di Swing, lo stesso che lo usa per il suono di fine partita
+        view.getAssets().loadSound(AssetLoader.BACKGROUND_MUSIC).thenAcceptAsync(music -> {
+            audioManager.loopSound(music);
+            audioManager.setVolume(-20.0f);
+        }, SwingUtilities::invokeLater);
     }
 
     /**
-     * Metodo chiamato quando il modello notifica gli osservatori.
+     * Applica alla vista la fotografia del tavolo consegnata una volta per frame,
+     * aggiornando una sola volta ogni parte toccata dagli eventi accumulati.
      *
-     * @param o   L'oggetto osservato.
-     * @param arg L'argomento passato nella notifica.
+     * @param snapshot La fotografia con gli eventi avvenuti dall'aggiornamento precedente.
      */
-    @Override
-    public void update(Observable o, Object arg)
+    private void applySnapshot(TableSnapshot snapshot)
     {
-        if (!(arg instanceof String))
+        if (snapshot.hasChanged(GameEvent.CARDS_DEALT) || snapshot.hasChanged(GameEvent.AI_PLAYERS_TURN))
         {
-            return; // Se non è una stringa, non fare nulla
+            for (int i = 0; i < snapshot.getNumAiPlayers(); i++)
+            {
+                view.updateSingleAIPlayerHandWithDelay(i, snapshot.getAiHand(i), snapshot.getAiScores(i));
+            }
         }
-        String event = (String) arg;
-
-        switch (event)
-        {
-            case "Cards Given To Players":
-                updateAIPlayersHands();
-                updatePlayerHand();
-                updateDealerHand();
-                break;
-            case "Chips updated":
-                view.updateChips(model.getPlayer().getChips());
-                view.updateAIChips(model.getAiPlayers());
-                break;
-            case "AI Players Turn":
-                updateAIPlayersHands();
-                break;
-            case "Dealer Turn":
-                List<Card> dealerHand = model.getDealer().getHand();
-                revealDealerCardsWithDelay(dealerHand, 2);
-            default:
-                break;
+        if (snapshot.hasChanged(GameEvent.CARDS_DEALT))
+        {
+            view.updatePlayerHand(snapshot.getPlayerHand(), snapshot.getPlayerScores());
+            if (!snapshot.hasChanged(GameEvent.DEALER_TURN))
+            {
+                view.updateDealerHand(snapshot.getDealerHand(), false); // Mostra solo una carta scoperta
+            }
+        }
+        if (snapshot.hasChanged(GameEvent.CHIPS_UPDATED))
+        {
+            view.updateChips(snapshot.getPlayerChips());
+            view.updateAIChips(snapshot.getAiChips());
+        }
+        if (snapshot.hasChanged(GameEvent.AI_BETS_PLACED))
+        {
+            view.updateAIChipsBet(snapshot.getAiBets());
+        }
+        if (snapshot.hasChanged(GameEvent.DEALER_TURN))
+        {
+            revealDealerCardsWithDelay(snapshot.getDealerHand(), 2);
         }
-    }
-
-    /**
-     * Aggiorna la mano del giocatore nella vista.
-     */
-    private void updatePlayerHand()
-    {
-        List<Card> playerHand = model.getPlayer().getHand();
-        int[] playerScores = model.getPlayer().calculateScore(false);
-        view.updatePlayerHand(playerHand, playerScores);
-    }
-
-    private void updateDealerHand()
-    {
-        List<Card> dealerHand = model.getDealer().getHand();
-        view.updateDealerHand(dealerHand, false); // Mostra solo una carta scoperta
     }
 
     /**
@@ -114,6 +102,7 @@ public class BlackJackController implements Observer
         public void actionPerformed(ActionEvent e)
         {
             view.showGameScreen();
+            model.getPlayer().setNickname(view.getNickname());
             int initialChips = view.getInitialChips();
             model.getPlayer().setChips(initialChips);
             int numAIPlayers = view.getNumAIPlayers();
@@ -132,20 +121,6 @@ public class BlackJackController implements Observer
         }
     }
 
-    /**
-     * Aggiorna le mani dei giocatori AI nella vista.
-     */
-    private void updateAIPlayersHands()
-    {
-        List<List<Card>> aiPlayerHands = model.getAIPlayersHands(); //Recupera le mani
-        Map<Integer, int[]> aiPlayerScores = model.getAiPlayerScores(); // Recupera i punteggi
-
-        for (int i = 0; i < aiPlayerHands.size(); i++)
-        {
-            view.updateSingleAIPlayerHandWithDelay(i, aiPlayerHands.get(i), aiPlayerScores.get(i));
-        }
-    }
-
     /**
      * Listener per il pulsante Double Down.
      */
@@ -157,7 +132,7 @@ public class BlackJackController implements Observer
             int betAmount = model.getBetAmount();
             if (model.getPlayer().doubleDown(betAmount)) // Check if the player has enough chips to double down
             {
-                view.updateChips(model.getPlayer().getChips()); // Update the player's chips in the view
+                model.notifyChipsUpdated(); // Le fiches vengono mostrate dalla fotografia alla fine del passo
                 model.getPlayer().draw(model.getDeck(), false);
                 List<Card> hand = model.getPlayer().getHand();
                 int[] scores = model.getPlayer().calculateScore(false); // Calculate the scores after drawing a card
@@ -249,6 +224,38 @@ public class BlackJackController implements Observer
             }
         }
     }
+    /*
+     * Listener del pulsante Consiglio: mostra l'azione con il valore atteso più alto per la mano in gioco
+     * */
+    private class HintButtonListener implements ActionListener
+    {
+        @Override
+        public void actionPerformed(ActionEvent e)
+        {
+            boolean isSplitHand = isSplithandPressed && isStandPressed;
+            double[] ev = model.evaluatePlayerHand(isSplitHand);
+            PlayerAction best = EvSolver.bestAction(ev);
+            view.showHint(String.format("Consiglio: %s (EV %+.3f)", hintName(best), ev[best.ordinal()]));
+        }
+    }
+
+    private static String hintName(PlayerAction action)
+    {
+        switch (action)
+        {
+            case HIT:
+                return "Pescare";
+            case DOUBLE:
+                return "Raddoppia";
+            case SPLIT:
+                return "Split";
+            case SURRENDER:
+                return "Arrenditi";
+            default:
+                return "Stare";
+        }
+    }
+
     //Metodo per rivelare tutte le carte del dealer
     private void revealAllDealerCards()
     {
@@ -274,7 +281,7 @@ public class BlackJackController implements Observer
             if (model.getPlayer().betChips(currentBet)) // Check if the player has enough chips to double down
             {
                 {
-                    view.updateChips(model.getPlayer().getChips());
+                    model.notifyChipsUpdated();
                     //System.out.println("Bet amount after splitting: " + model.getBetAmount());
                     view.showPlayerPanels(true); // Mostra il pannello dello splitHand
                     isSplithandPressed = true;
@@ -291,11 +298,9 @@ public class BlackJackController implements Observer
     //Metodo per gestire la divisione delle carte del giocatore
     private void handleSplit()
     {
-        List<Card> playerHand = model.getPlayer().getHand();
-        if (model.getPlayer().canSplit())
+        if (model.getPlayer().canSplit() && model.getRules().isSplitAllowed())
         {
-            Card secondCard = playerHand.remove(1);
-            model.getPlayer().addCardToSplitHand(secondCard);
+            model.getPlayer().splitMainHand();
             model.getPlayer().draw(model.getDeck(), false);
             model.getPlayer().draw(model.getDeck(), true);
 
@@ -328,9 +333,8 @@ public class BlackJackController implements Observer
         if (model.getPlayer().betChips(betAmount))
         {
             model.setBetAmount(betAmount);
-            model.aiPLayerPlaceBets();
-            view.updateChips(model.getPlayer().getChips());
-            view.showGameInfo(model.getPlayer().getChips());
+            model.aiPLayerPlaceBets(); // Le fiches di tutti vengono mostrate dalla fotografia alla fine del passo
+            view.showGameInfo();
             startNewRound();
             gameNumber++;
         } else
@@ -338,8 +342,6 @@ public class BlackJackController implements Observer
             view.updateMessage("Non hai abbastanza fiches per scommettere.");
             askForBetWithDelay();
         }
-        view.updateAIChips(model.getAiPlayers());
-        view.updateAIChipsBet(model.getAiPlayers());
     }
 
     //Inizia una nuova partita
@@ -349,21 +351,13 @@ public class BlackJackController implements Observer
         view.enableGameControls(); // Abilita i controlli del gioco
         view.resetScores(); // Resetta i punteggi
 
-        view.updateAIChips(model.getAiPlayers()); // Aggiorna le fiches dei giocatori AI
+        // Mani e fiches vengono mostrate dalla fotografia del tavolo alla fine di questo passo
         model.cardsGivenToPlayers(); // Distribuisci le carte ai giocatori
         printGameStatistics(); // Stampa le statistiche del gioco
 
         printAIPlayerHands(); // Stampa le mani dei giocatori AI
         printAIPlayerChips(); // Stampa le fiches dei giocatori AI
 
-        List<Card> dealerHand = model.getDealer().getHand();
-        int dealerVisibleScore = dealerHand.get(1).getCardValueType().getValue();
-
-        view.updateDealerHand(dealerHand, false);
-        List<Card> playerHand = model.getPlayer().getHand();
-        int[] playerScores = model.getPlayer().calculateScore(false);
-        view.updatePlayerHand(playerHand, playerScores);
-
         //Resetto lo stato di stand per il nuovo round
         isStandPressed = false;
 
@@ -391,7 +385,8 @@ public class BlackJackController implements Observer
         } else
         {
             view.updateMessage("BlackJack! Hai vinto!");
-            model.getPlayer().winChips(model.getBetAmount() * 2);
+            // Vincita secondo il pagamento del Blackjack previsto dalle regole del tavolo
+            model.getPlayer().winChips(model.getBetAmount() + model.getRules().blackjackWin(model.getBetAmount()));
             model.getPlayer().incrementGamesPlayed();
             model.getPlayer().incrementGamesWon();
         }
@@ -427,8 +422,9 @@ public class BlackJackController implements Observer
     //Metodo per gestire la fine del gioco
     private void handleGameOver()
     {
-
-        audioManager.playSound("src/Music/gameOverSound.wav");
+        // Il suono parte sul thread di Swing appena è caricato, senza bloccare l'interfaccia ad attenderlo
+        view.getAssets().loadSound(AssetLoader.GAME_OVER_SOUND)
+                .thenAcceptAsync(audioManager::playSound, SwingUtilities::invokeLater);
         view.updateMessage("Hai finito le fiches! Riavvia la partita per giocare di nuovo.");
         view.disableGameControls();
 
@@ -446,13 +442,11 @@ public class BlackJackController implements Observer
     private void updateGameStats()
     {
         updateScoresController();
-        view.updateChips(model.getPlayer().getChips());
+        model.notifyChipsUpdated(); // Fiches del giocatore e degli AI Players dalla fotografia
         view.updatePlayerHand(model.getPlayer().getHand(), model.getPlayer().calculateScore(false));
         view.updateSplitHand(model.getPlayer().getSplitHand(), model.getPlayer().calculateScore(true));
         view.updateDealerHand(model.getDealer().getHand(), true);
         printGameStatistics();
-        view.updateAllAIPlayerChips(model.getAiPlayers());
-        view.updateAIChips(model.getAiPlayers());
     }
 
 
@@ -612,7 +606,6 @@ public class BlackJackController implements Observer
                 if (model.getPlayer().getChips() >= insuranceBet)
                 {
                     model.getPlayer().placeInsuranceBet(insuranceBet);
-                    view.updateChips(model.getPlayer().getChips());
                 } else
                 {
                     view.showMessage("Non hai abbastanza fiches per piazzare l'assicurazione.");
@@ -625,7 +618,7 @@ public class BlackJackController implements Observer
                 int insuranceBet = aiPlayer.getBetAmount() / 2; // Example logic: AI bets half of their current bet
                 if (aiPlayer.getChips() >= insuranceBet)
                 {
-                    if (Math.random() < 1.0 / 3.0) // AI takes insurance bet one out of three times
+                    if (model.getRandom().nextInt(3) == 0) // AI takes insurance bet one out of three times
                     {
                         aiPlayer.placeInsuranceBet(insuranceBet);
                         System.out.println("AI Player " + aiPlayer.getNickname() + " ha piazzato una scommessa assicurativa di " + insuranceBet + " fiches.");
@@ -638,12 +631,11 @@ public class BlackJackController implements Observer
                     System.out.println("AI Player " + aiPlayer.getNickname() + " non ha abbastanza fiches per piazzare l'assicurazione.");
                 }
             }
-            view.updateAllChips(model.getPlayer().getChips(), model.getAiPlayers());
             model.checkInsurancePayout(); // Check the insurance payout
+            model.notifyChipsUpdated(); // Consegnato dal ciclo di eventi della finestra del risultato
             boolean dealerHasBlackJack = model.getDealer().hasBlackJack();
             //Show the result of the insurancePayout
             view.showInsuranceResult(dealerHasBlackJack, model.getPlayer().getInsuranceBet(), model.getAiPlayers());
-            view.updateAllChips(model.getPlayer().getChips(), model.getAiPlayers());
             if (dealerHasBlackJack)
             {
                 //Rendi la seconda carta visibile
@@ -1,14 +1,45 @@
 import Controller.BlackJackController;
 import Model.BlackJackGame;
+import Server.GameServer;
+import Server.LoadGenerator;
+import Simulation.SimulationRunner;
+import View.AssetLoader;
 import View.BlackJackView;
+import View.Resources;
 public class JBLackJack
 {
-    public static void main(String[] args)
+    public static void main(String[] args) throws Exception
     {
+        //Modalità di simulazione da riga di comando, senza interfaccia grafica
+        if (args.length > 0 && args[0].equals("--simulate"))
+        {
+            SimulationRunner.main(args);
+            return;
+        }
+        //Modalità server: tavoli serviti via socket, senza interfaccia grafica
+        if (args.length > 0 && args[0].equals("--server"))
+        {
+            GameServer.main(args);
+            return;
+        }
+        //Generatore di carico per il server, senza interfaccia grafica
+        if (args.length > 0 && args[0].equals("--load"))
+        {
+            LoadGenerator.main(args);
+            return;
+        }
+        //Crea il pacchetto di risorse, letto poi all'avvio con un'unica mappatura in memoria
+        if (args.length > 0 && args[0].startsWith("--pack-assets"))
+        {
+            Resources.main(args);
+            return;
+        }
+        //Avvia subito in background il caricamento di immagini e suoni
+        AssetLoader assets = new AssetLoader();
         //Inizializza il modello
         BlackJackGame game = new BlackJackGame();
         //Inizializza la vista
-        BlackJackView view = new BlackJackView();
+        BlackJackView view = new BlackJackView(assets);
         //Inizializza il controller
         BlackJackController controller = new BlackJackController(view, game);
     }
@@ -5,7 +5,13 @@ package Model;
  */
 public class AiPlayer extends BasePlayer
 {
+    /**
+     * Strategia predefinita degli AI: la strategia di base, condivisa perché immutabile.
+     */
+    private static final Strategy DEFAULT_STRATEGY = new BasicStrategy();
+
     private String nickname;
+    private Strategy strategy = DEFAULT_STRATEGY;
 
     /**
      * Costruttore per creare un AI Player con un nickname.
@@ -25,6 +31,26 @@ public class AiPlayer extends BasePlayer
         return nickname;
     }
 
+    /**
+     * Restituisce la strategia con cui l'AI prende le decisioni.
+     *
+     * @return La strategia dell'AI.
+     */
+    public Strategy getStrategy()
+    {
+        return strategy;
+    }
+
+    /**
+     * Imposta la strategia con cui l'AI prende le decisioni.
+     *
+     * @param strategy La nuova strategia.
+     */
+    public void setStrategy(Strategy strategy)
+    {
+        this.strategy = strategy;
+    }
+
     public int getChips()
     {
         return chips;
@@ -42,7 +68,7 @@ public class AiPlayer extends BasePlayer
     }
 
     /**
-     * Metodo che simula il turno dell'AI, applicando logica per decidere se pescare, stare o raddoppiare.
+     * Metodo che simula il turno dell'AI, applicando la sua strategia per decidere se pescare, stare o raddoppiare.
      *
      * @param game     Riferimento all'oggetto BlackJackGame.
      */
@@ -56,29 +82,34 @@ public class AiPlayer extends BasePlayer
             return;
         }
 
-        // Controlla se può fare Double Down
-        if ((calculateHandScore(getHand())[0] == 10 || calculateHandScore(getHand())[0] == 11) && chips >= betamount)
-        {
-            doubleDown(game.getDeck());
-            return;
-        }
-
         // Gioca il turno normalmente
         HitHandAI(game);
     }
 
     /**
-     * Metodo per far giocare l'AI seguendo la logica di base del Blackjack.
+     * Metodo per far giocare l'AI seguendo la sua strategia.
+     * Nel gioco con interfaccia grafica gli AI non dividono e non si arrendono,
+     * perché la vista mostra e il gioco paga una sola mano per AI.
      *
      * @param game Il gioco corrente.
      */
     public void HitHandAI(BlackJackGame game)
     {
-        int[] scores = calculateHandScore(getHand());
-        while (scores[0] < 17)
+        Card dealerUpCard = game.getDealer().getHand().get(0);
+        while (bestTotal() < 21)
         {
+            boolean canDouble = hand.size() == 2 && chips >= betamount;
+            PlayerAction action = strategy.decide(this, false, dealerUpCard, canDouble, false, false);
+            if (action == PlayerAction.STAND)
+            {
+                break;
+            }
+            if (action == PlayerAction.DOUBLE)
+            {
+                doubleDown(game.getDeck());
+                return;
+            }
             draw(game.getDeck(), false);
-            scores = calculateHandScore(getHand());
         }
         System.out.println("AI Player " + getNickname() + " hits hand. Current hand: " + getHand());
     }
@@ -112,12 +143,4 @@ public class AiPlayer extends BasePlayer
         return betamount;
     }
 
-    /**
-     * Resetta l'importo della scommessa dell'AI.
-     */
-    public void resetBetAmount()
-    {
-        betamount = 0;
-    }
-
 }
@@ -1,7 +1,7 @@
 package Model;
 
 import javax.sound.sampled.*;
-import java.io.File;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 
 /**
@@ -13,21 +13,15 @@ public class AudioManager
     private Clip clip; // Oggetto per la riproduzione del suono
 
     /**
-     * Riproduce un suono dal file specificato.
+     * Riproduce un suono già caricato in memoria, senza accedere al disco.
      *
-     * @param filePath Il percorso del file audio da riprodurre.
+     * @param audioData Il contenuto del file audio, oppure {@code null} se il suono non è disponibile.
      */
-    public void playSound(String filePath)
+    public void playSound(byte[] audioData)
     {
-        try
+        if (openClip(audioData))
         {
-            AudioInputStream audioInputStream = AudioSystem.getAudioInputStream(new File(filePath).getAbsoluteFile());
-            clip = AudioSystem.getClip();
-            clip.open(audioInputStream);
             clip.start();
-        } catch (UnsupportedAudioFileException | IOException | LineUnavailableException e)
-        {
-            e.printStackTrace();
         }
     }
 
@@ -43,21 +37,40 @@ public class AudioManager
     }
 
     /**
-     * Riproduce un suono in loop continuo dal file specificato.
+     * Riproduce in loop continuo un suono già caricato in memoria, senza accedere al disco.
+     *
+     * @param audioData Il contenuto del file audio, oppure {@code null} se il suono non è disponibile.
+     */
+    public void loopSound(byte[] audioData)
+    {
+        if (openClip(audioData))
+        {
+            clip.loop(Clip.LOOP_CONTINUOUSLY);
+        }
+    }
+
+    /**
+     * Prepara un nuovo clip con il suono indicato.
      *
-     * @param filePath Il percorso del file audio da riprodurre in loop.
+     * @param audioData Il contenuto del file audio, oppure {@code null} se il suono non è disponibile.
+     * @return {@code true} se il clip è pronto per la riproduzione.
      */
-    public void loopSound(String filePath)
+    private boolean openClip(byte[] audioData)
     {
+        if (audioData == null)
+        {
+            return false;
+        }
         try
         {
-            AudioInputStream audioInputStream = AudioSystem.getAudioInputStream(new File(filePath).getAbsoluteFile());
+            AudioInputStream audioInputStream = AudioSystem.getAudioInputStream(new ByteArrayInputStream(audioData));
             clip = AudioSystem.getClip();
             clip.open(audioInputStream);
-            clip.loop(Clip.LOOP_CONTINUOUSLY);
+            return true;
         } catch (UnsupportedAudioFileException | IOException | LineUnavailableException e)
         {
             e.printStackTrace();
+            return false;
         }
     }
 
@@ -1,6 +1,7 @@
 package Model;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -12,7 +13,17 @@ public abstract class BasePlayer extends BlackJackParticipant
     /**
      * Lista delle carte della mano split del giocatore.
      */
-    protected List<Card> splitHand;
+    protected final List<Card> splitHand = new ArrayList<>();
+
+    /**
+     * Vista non modificabile della mano split, restituita da {@link #getSplitHand()}.
+     */
+    private final List<Card> splitHandView = Collections.unmodifiableList(splitHand);
+
+    /**
+     * Punteggio della mano split, aggiornato a ogni carta aggiunta.
+     */
+    protected final HandValue splitHandValue = new HandValue();
 
     /**
      * Numero di fiches possedute dal giocatore.
@@ -35,8 +46,6 @@ public abstract class BasePlayer extends BlackJackParticipant
      */
     public BasePlayer()
     {
-        this.hand = new ArrayList<>();
-        this.splitHand = new ArrayList<>();
         this.chips = 1000;
         this.betamount = 0;
         this.insuranceBet = 0;
@@ -52,10 +61,10 @@ public abstract class BasePlayer extends BlackJackParticipant
     {
         if (isSplitHand)
         {
-            splitHand.add(deck.drawCard());
+            addCardToSplitHand(deck.drawCard());
         } else
         {
-            hand.add(deck.drawCard());
+            addCard(deck.drawCard());
         }
     }
 
@@ -66,7 +75,7 @@ public abstract class BasePlayer extends BlackJackParticipant
      */
     public void addMainHand(Card card)
     {
-        hand.add(card);
+        addCard(card);
     }
 
     /**
@@ -77,6 +86,19 @@ public abstract class BasePlayer extends BlackJackParticipant
     public void addCardToSplitHand(Card card)
     {
         splitHand.add(card);
+        splitHandValue.add(card);
+    }
+
+    /**
+     * Divide la mano principale spostando la seconda carta nella mano split.
+     * Va chiamato solo quando {@link #canSplit()} restituisce {@code true}.
+     */
+    public void splitMainHand()
+    {
+        Card secondCard = hand.remove(1);
+        handValue.reset();
+        handValue.add(hand.get(0));
+        addCardToSplitHand(secondCard);
     }
 
     /**
@@ -102,11 +124,21 @@ public abstract class BasePlayer extends BlackJackParticipant
     /**
      * Restituisce la seconda mano del giocatore.
      *
-     * @return La lista di carte nella mano divisa.
+     * @return Una vista non modificabile delle carte nella mano divisa.
      */
     public List<Card> getSplitHand()
     {
-        return splitHand;
+        return splitHandView;
+    }
+
+    /**
+     * Restituisce il punteggio incrementale della mano divisa.
+     *
+     * @return Il {@link HandValue} della mano split.
+     */
+    public HandValue getSplitHandValue()
+    {
+        return splitHandValue;
     }
 
     /**
@@ -154,13 +186,47 @@ public abstract class BasePlayer extends BlackJackParticipant
         System.out.println("Hai vinto " + amount + " fiches!");
     }
 
+    /**
+     * Aggiunge fiches al saldo senza stampare messaggi, per il gioco senza interfaccia.
+     *
+     * @param amount L'importo delle fiches da accreditare.
+     */
+    void creditChips(int amount)
+    {
+        chips += amount;
+    }
+
+    /**
+     * Resetta l'importo della scommessa del giocatore a 0.
+     */
+    public void resetBetAmount()
+    {
+        betamount = 0;
+    }
+
     /**
      * Svuota entrambe le mani del giocatore.
      */
     public void clearHand()
     {
-        hand.clear();
+        super.clearHand();
         splitHand.clear();
+        splitHandValue.reset();
+    }
+
+    /**
+     * Svuota la mano principale e la mano divisa restituendo le carte al mazzo.
+     *
+     * @param deck Il mazzo da cui sono state pescate le carte.
+     */
+    @Override
+    public void clearHand(Deck deck)
+    {
+        for (Card card : splitHand)
+        {
+            deck.discard(card);
+        }
+        super.clearHand(deck);
     }
 
     /**
@@ -171,8 +237,7 @@ public abstract class BasePlayer extends BlackJackParticipant
      */
     public int[] calculateScore(boolean isSplitHand)
     {
-        List<Card> hand = isSplitHand ? splitHand : this.hand;
-        return calculateHandScore(hand);
+        return (isSplitHand ? splitHandValue : handValue).toScoreArray();
     }
 
     /**
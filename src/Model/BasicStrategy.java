@@ -0,0 +1,217 @@
+package Model;
+
+import java.util.List;
+
+/**
+ * Strategia di base del Blackjack per shoe da più mazzi, adattata alle {@link TableRules}
+ * (dealer che sta o pesca sul 17 morbido, raddoppio dopo lo split, resa tardiva).
+ * La tabella viene calcolata una sola volta in un array piatto di byte indicizzato per
+ * tipo di mano, punteggio e carta scoperta del dealer: ogni decisione è una lettura
+ * dell'array, più una seconda lettura quando la mano può essere divisa.
+ * Le istanze sono immutabili e possono essere condivise tra thread.
+ */
+public class BasicStrategy implements Strategy
+{
+    // Codici delle celle della tabella
+    private static final byte HIT = 0;
+    private static final byte STAND = 1;
+    private static final byte DOUBLE_OR_HIT = 2;
+    private static final byte DOUBLE_OR_STAND = 3;
+    private static final byte SURRENDER_OR_HIT = 4;
+    private static final byte SPLIT = 5;
+    private static final byte NO_SPLIT = 6;
+    private static final byte SURRENDER_OR_STAND = 7;
+    private static final byte SURRENDER_OR_SPLIT = 8;
+
+    // Righe della tabella: mani dure e morbide per punteggio (0-21), coppie per punti della carta (1-10)
+    private static final int HARD = 0;
+    private static final int SOFT = 22;
+    private static final int PAIR = 44;
+    private static final int ROWS = PAIR + 11;
+    private static final int UP_CARDS = 10; // Asso, 2, ..., 10
+
+    private final byte[] table = new byte[ROWS * UP_CARDS];
+
+    /**
+     * Costruisce la tabella della strategia di base per le regole predefinite.
+     */
+    public BasicStrategy()
+    {
+        this(TableRules.DEFAULT);
+    }
+
+    /**
+     * Costruisce la tabella della strategia di base per le regole indicate.
+     *
+     * @param rules Le regole del tavolo.
+     */
+    public BasicStrategy(TableRules rules)
+    {
+        boolean h17 = rules.isDealerHitsSoft17();
+        // Mani dure
+        for (int total = 4; total <= 21; total++)
+        {
+            for (int up = 1; up <= 10; up++)
+            {
+                set(HARD, total, up, hardAction(total, up, h17));
+            }
+        }
+        // Mani morbide (punteggio con l'Asso contato come 11)
+        for (int total = 12; total <= 21; total++)
+        {
+            for (int up = 1; up <= 10; up++)
+            {
+                set(SOFT, total, up, softAction(total, up, h17));
+            }
+        }
+        // Coppie
+        for (int points = 1; points <= 10; points++)
+        {
+            for (int up = 1; up <= 10; up++)
+            {
+                byte action = pairAction(points, up, rules.isDoubleAfterSplit()) ? SPLIT : NO_SPLIT;
+                if (h17 && points == 8 && up == 1)
+                {
+                    action = SURRENDER_OR_SPLIT;
+                }
+                set(PAIR, points, up, action);
+            }
+        }
+    }
+
+    private static byte hardAction(int total, int up, boolean h17)
+    {
+        boolean upTwoToSix = up >= 2 && up <= 6;
+        if (total <= 8)
+        {
+            return HIT;
+        }
+        if (total == 9)
+        {
+            return up >= 3 && up <= 6 ? DOUBLE_OR_HIT : HIT;
+        }
+        if (total == 10)
+        {
+            return up >= 2 && up <= 9 ? DOUBLE_OR_HIT : HIT;
+        }
+        if (total == 11)
+        {
+            return up >= 2 || h17 ? DOUBLE_OR_HIT : HIT;
+        }
+        if (total == 12)
+        {
+            return up >= 4 && up <= 6 ? STAND : HIT;
+        }
+        if (total <= 14)
+        {
+            return upTwoToSix ? STAND : HIT;
+        }
+        if (total == 15)
+        {
+            return upTwoToSix ? STAND : (up == 10 || (h17 && up == 1) ? SURRENDER_OR_HIT : HIT);
+        }
+        if (total == 16)
+        {
+            return upTwoToSix ? STAND : (up == 9 || up == 10 || up == 1 ? SURRENDER_OR_HIT : HIT);
+        }
+        if (total == 17 && h17 && up == 1)
+        {
+            return SURRENDER_OR_STAND;
+        }
+        return STAND;
+    }
+
+    private static byte softAction(int total, int up, boolean h17)
+    {
+        switch (total)
+        {
+            case 12:
+                return HIT;
+            case 13:
+            case 14:
+                return up == 5 || up == 6 ? DOUBLE_OR_HIT : HIT;
+            case 15:
+            case 16:
+                return up >= 4 && up <= 6 ? DOUBLE_OR_HIT : HIT;
+            case 17:
+                return up >= 3 && up <= 6 ? DOUBLE_OR_HIT : HIT;
+            case 18:
+                if ((up >= 3 && up <= 6) || (h17 && up == 2))
+                {
+                    return DOUBLE_OR_STAND;
+                }
+                return up == 2 || up == 7 || up == 8 ? STAND : HIT;
+            case 19:
+                return h17 && up == 6 ? DOUBLE_OR_STAND : STAND;
+            default:
+                return STAND;
+        }
+    }
+
+    private static boolean pairAction(int points, int up, boolean das)
+    {
+        switch (points)
+        {
+            case 1:
+            case 8:
+                return true;
+            case 2:
+            case 3:
+                return up >= (das ? 2 : 4) && up <= 7;
+            case 7:
+                return up >= 2 && up <= 7;
+            case 4:
+                return das && (up == 5 || up == 6);
+            case 6:
+                return up >= (das ? 2 : 3) && up <= 6;
+            case 9:
+                return up != 1 && up != 7 && up != 10;
+            default:
+                return false; // 5 e 10 non si dividono
+        }
+    }
+
+    private void set(int section, int row, int up, byte action)
+    {
+        table[(section + row) * UP_CARDS + up - 1] = action;
+    }
+
+    @Override
+    public PlayerAction decide(BasePlayer player, boolean isSplitHand, Card dealerUpCard,
+                               boolean canDouble, boolean canSplit, boolean canSurrender)
+    {
+        int up = dealerUpCard.getCardValueType().getValue() - 1;
+        if (canSplit)
+        {
+            List<Card> hand = isSplitHand ? player.getSplitHand() : player.getHand();
+            int points = hand.get(0).getCardValueType().getValue();
+            byte pair = table[(PAIR + points) * UP_CARDS + up];
+            if (pair == SPLIT || (pair == SURRENDER_OR_SPLIT && !canSurrender))
+            {
+                return PlayerAction.SPLIT;
+            }
+            if (pair == SURRENDER_OR_SPLIT)
+            {
+                return PlayerAction.SURRENDER;
+            }
+        }
+
+        HandValue value = isSplitHand ? player.getSplitHandValue() : player.getHandValue();
+        int row = value.isSoft() ? SOFT + value.bestTotal() : HARD + Math.min(value.hardTotal(), 21);
+        switch (table[row * UP_CARDS + up])
+        {
+            case STAND:
+                return PlayerAction.STAND;
+            case DOUBLE_OR_HIT:
+                return canDouble ? PlayerAction.DOUBLE : PlayerAction.HIT;
+            case DOUBLE_OR_STAND:
+                return canDouble ? PlayerAction.DOUBLE : PlayerAction.STAND;
+            case SURRENDER_OR_HIT:
+                return canSurrender ? PlayerAction.SURRENDER : PlayerAction.HIT;
+            case SURRENDER_OR_STAND:
+                return canSurrender ? PlayerAction.SURRENDER : PlayerAction.STAND;
+            default:
+                return PlayerAction.HIT;
+        }
+    }
+}
@@ -2,20 +2,26 @@
 package Model;
 
 import java.util.*;
+import java.util.random.RandomGenerator;
 import java.util.stream.Collectors;
 
 /**
  * Classe {@code BlackJackGame} che gestisce la logica del gioco di Blackjack.
  * Contiene il mazzo, il dealer, il giocatore e gli AI Players.
- * Implementa {@code Observable} per notificare le modifiche agli osservatori.
+ * Notifica le modifiche ai listener registrati sul suo {@link GameEventBus}.
  */
-public class BlackJackGame extends Observable
+public class BlackJackGame
 {
-    private Player player;
+    private final Player player;
     private Dealer dealer;
     private Deck deck;
-    private static final int NUM_DECKS = 6;
+    private final TableRules rules; // Regole del tavolo
+    private final Strategy aiStrategy; // Strategia di base per le regole del tavolo, condivisa dagli AI
+    private static final int SHOE_POOL_SIZE = 2; // Shoe tenuti pronti dal pool
     private List<AiPlayer> aiPlayers = new ArrayList<>();
+    private final RandomGenerator.SplittableGenerator random; // Generatore per le scommesse e l'assicurazione degli AI
+    private EvSolver hintSolver; // Creato al primo consiglio richiesto
+    private final GameEventBus events = new GameEventBus();
 
     // Parametri di gioco
     private int betamount;
@@ -23,11 +29,63 @@ public class BlackJackGame extends Observable
 
     /**
      * Costruttore che inizializza il gioco creando il mazzo, il dealer e il giocatore.
+     * I nuovi shoe vengono mescolati in anticipo da uno {@link ShoePool} in background.
      */
     public BlackJackGame()
     {
-        deck = new Deck(NUM_DECKS);
-        player = Player.getInstance();
+        this(TableRules.DEFAULT, new SplittableRandom());
+        deck.setShoePool(new ShoePool(rules.getNumDecks(), random.split(), SHOE_POOL_SIZE));
+    }
+
+    /**
+     * Costruttore che inizializza il gioco con uno shoe del numero di mazzi indicato.
+     *
+     * @param numDecks Numero di mazzi nello shoe (tra 4 e 8).
+     */
+    public BlackJackGame(int numDecks)
+    {
+        this(numDecks, new SplittableRandom());
+    }
+
+    /**
+     * Costruttore che inizializza il gioco con le regole predefinite e un generatore dedicato.
+     *
+     * @param numDecks Numero di mazzi nello shoe (tra 4 e 8).
+     * @param random   Generatore da cui derivano il mescolamento e le scelte degli AI.
+     */
+    public BlackJackGame(int numDecks, RandomGenerator.SplittableGenerator random)
+    {
+        this(TableRules.DEFAULT.withNumDecks(numDecks), random);
+    }
+
+    /**
+     * Costruttore che inizializza il gioco con un nuovo giocatore e un generatore di numeri casuali dedicato.
+     *
+     * @param rules  Le regole del tavolo, compreso il numero di mazzi.
+     * @param random Generatore da cui derivano il mescolamento e le scelte degli AI.
+     */
+    public BlackJackGame(TableRules rules, RandomGenerator.SplittableGenerator random)
+    {
+        this(new Player(), rules, random);
+    }
+
+    /**
+     * Costruttore che inizializza il gioco per un giocatore con un generatore di numeri casuali dedicato.
+     * Ogni gioco ha il proprio stato: istanze diverse possono essere usate su thread diversi.
+     * Lo shoe riceve un flusso separato ottenuto con {@code split()}, per cui a parità di seme
+     * ogni round può essere rigiocato in modo identico.
+     *
+     * @param player Il giocatore della partita.
+     * @param rules  Le regole del tavolo, compreso il numero di mazzi.
+     * @param random Generatore da cui derivano il mescolamento e le scelte degli AI.
+     */
+    public BlackJackGame(Player player, TableRules rules, RandomGenerator.SplittableGenerator random)
+    {
+        this.player = player;
+        this.rules = rules;
+        this.random = random;
+        aiStrategy = new BasicStrategy(rules);
+        deck = new Deck(rules.getNumDecks(), random.split());
         dealer = new Dealer();
         aiPlayers = new ArrayList<>();
     }
@@ -42,7 +100,9 @@ public class BlackJackGame extends Observable
         aiPlayers.clear();
         for (int i = 1; i <= numAiPlayers; i++)
         {
-            aiPlayers.add(new AiPlayer("AI" + i));
+            AiPlayer aiPlayer = new AiPlayer("AI" + i);
+            aiPlayer.setStrategy(aiStrategy);
+            aiPlayers.add(aiPlayer);
         }
     }
     /**
@@ -50,15 +110,20 @@ public class BlackJackGame extends Observable
      */
     public void cardsGivenToPlayers()
     {
+        // Cambia lo shoe tra un round e l'altro se è uscita la carta di taglio
+        if (deck.needsShuffle())
+        {
+            deck.newShoe();
+        }
+
         // Resetta le mani dei giocatori
-        player.clearHand();
-        dealer.clearHand();
-        aiPlayers.forEach(AiPlayer::clearHand);
+        player.clearHand(deck);
+        dealer.clearHand(deck);
+        aiPlayers.forEach(ai -> ai.clearHand(deck));
 
         dealInitialCards();
 
-        setChanged();
-        notifyObservers("Cards Given To Players");
+        events.publish(GameEvent.CARDS_DEALT);
     }
     /**
      * Distribuisce due carte iniziali a tutti i giocatori e al dealer.
@@ -86,8 +151,32 @@ public class BlackJackGame extends Observable
             aiPlayer.AITurn(this);
         }
         determineWinnerForAIPlayers();
-        setChanged();
-        notifyObservers("AI Players Turn");
+        events.publish(GameEvent.AI_PLAYERS_TURN);
+    }
+
+    /**
+     * Calcola il valore atteso di ogni azione per una mano del giocatore sulle carte rimaste nello shoe,
+     * usato per il consiglio mostrato nella vista.
+     *
+     * @param isSplitHand {@code true} per la mano divisa.
+     * @return Il valore atteso di ogni azione, indicizzato per {@link PlayerAction#ordinal()}
+     *         ({@link Double#NaN} per le azioni non consentite).
+     */
+    public double[] evaluatePlayerHand(boolean isSplitHand)
+    {
+        if (hintSolver == null)
+        {
+            hintSolver = new EvSolver(rules);
+        }
+        int[] composition = new int[DealerProbabilityCalculator.RANKS];
+        deck.fillComposition(composition);
+        List<Card> hand = isSplitHand ? player.getSplitHand() : player.getHand();
+        boolean canDouble = !isSplitHand && hand.size() == 2 && player.getSplitHand().isEmpty()
+                && player.getChips() >= betamount;
+        boolean canSplit = !isSplitHand && player.getSplitHand().isEmpty() && player.canSplit()
+                && rules.isSplitAllowed();
+        return hintSolver.evaluate(player, isSplitHand, dealer.getHand().get(0), composition,
+                canDouble, canSplit, false);
     }
 
     /**
@@ -99,19 +188,12 @@ public class BlackJackGame extends Observable
         this.betamount = amount;
     }
     /**
-     * Esegue il turno del dealer seguendo la regola del minimo di 17 punti.
+     * Esegue il turno del dealer seguendo le regole del tavolo (minimo di 17 punti, H17 o S17).
      */
     public void dealerTurn()
     {
-        int[] dealerScores = dealer.calculateHandScore(dealer.getHand());
-
-        while (dealerScores[0] < 17)
-        {
-            dealer.draw(deck);
-            dealerScores = dealer.calculateHandScore(dealer.getHand());
-        }
-        setChanged();
-        notifyObservers("Dealer Turn");
+        dealer.playTurn(deck, rules);
+        events.publish(GameEvent.DEALER_TURN);
     }
 
     /**
@@ -132,12 +214,11 @@ public class BlackJackGame extends Observable
     }
 
     /**
-     * Notifica agli osservatori l'aggiornamento delle chips.
+     * Notifica ai listener l'aggiornamento delle chips.
      */
     public void notifyChipsUpdated()
     {
-        setChanged();
-        notifyObservers("Chips Updated");
+        events.publish(GameEvent.CHIPS_UPDATED);
     }
 
     /**
@@ -146,13 +227,9 @@ public class BlackJackGame extends Observable
      */
     public String determineWinnerForPlayer()
     {
-        int[] playerScores = player.calculateScore(false);
-        int[] splitScores = player.calculateScore(true);
-        int[] dealerScores = dealer.calculateHandScore(dealer.getHand());
-
-        int playerFinalScore = (playerScores.length > 1 && playerScores[1] <= 21) ? playerScores[1] : playerScores[0];
-        int splitFinalScore = (splitScores.length > 1 && splitScores[1] <= 21) ? splitScores[1] : splitScores[0];
-        int dealerFinalScore = (dealerScores.length > 1 && dealerScores[1] <= 21) ? dealerScores[1] : dealerScores[0];
+        int playerFinalScore = player.bestTotal();
+        int splitFinalScore = player.getSplitHandValue().bestTotal();
+        int dealerFinalScore = dealer.bestTotal();
 
         player.incrementGamesPlayed();
 
@@ -204,7 +281,6 @@ public class BlackJackGame extends Observable
         }
 
         //Aggiorna la view con le chips attuali degli AI
-        setChanged();
         notifyChipsUpdated();
         return resultMessage.toString();
     }
@@ -214,14 +290,11 @@ public class BlackJackGame extends Observable
     {
         StringBuilder resultMessage = new StringBuilder();
         boolean dealerBlackjack = dealer.hasBlackJack();
+        int dealerFinalScore = dealer.bestTotal();
 
         for (AiPlayer aiPlayer : aiPlayers)
         {
-            int[] aiPlayerScores = aiPlayer.calculateScore(false);
-            int[] dealerScores = dealer.calculateHandScore(dealer.getHand());
-
-            int aiPlayerFinalScore = (aiPlayerScores.length > 1 && aiPlayerScores[1] <= 21) ? aiPlayerScores[1] : aiPlayerScores[0];
-            int dealerFinalScore = (dealerScores.length > 1 && dealerScores[1] <= 21) ? dealerScores[1] : dealerScores[0];
+            int aiPlayerFinalScore = aiPlayer.bestTotal();
 
             boolean aiHasBlackjack = aiPlayer.hasBlackJack();
             // Determina il risultato per ogni AI Player
@@ -258,7 +331,6 @@ public class BlackJackGame extends Observable
                 aiPlayer.resetBetAmount();
             }
         }
-        setChanged();
         notifyChipsUpdated();
         return resultMessage.toString();
     }
@@ -266,7 +338,6 @@ public class BlackJackGame extends Observable
     //metodo per far scommettere i giocatori AI
     public void aiPLayerPlaceBets()
     {
-        Random random = new Random();
         for (AiPlayer aiPlayer : aiPlayers)
         {
             int maxBet = Math.max(1, aiPlayer.getChips() / 2); // Massimo 50% delle fiches
@@ -274,9 +345,8 @@ public class BlackJackGame extends Observable
             aiPlayer.betChips(betAmount);
             System.out.println("AI Player " + aiPlayer.getNickname() + " scommette " + betAmount + " chips.");
         }
-        setChanged();
-        notifyObservers("Chips updated");
-        notifyObservers("AI Players Place Bets");
+        events.publish(GameEvent.CHIPS_UPDATED);
+        events.publish(GameEvent.AI_BETS_PLACED);
     }
 
     /**
@@ -290,6 +360,14 @@ public class BlackJackGame extends Observable
             aiPlayer.resetInsuranceAmount();
         }
     }
+    /**
+     * @return Il registro su cui si iscrivono i listener degli eventi del gioco.
+     */
+    public GameEventBus getEvents()
+    {
+        return events;
+    }
+
     public Player getPlayer()
     {
         return player;
@@ -310,6 +388,16 @@ public class BlackJackGame extends Observable
         return betamount;
     }
 
+    public RandomGenerator getRandom()
+    {
+        return random;
+    }
+
+    public TableRules getRules()
+    {
+        return rules;
+    }
+
     public List<AiPlayer> getAiPlayers()
     {
         return aiPlayers;
@@ -318,11 +406,11 @@ public class BlackJackGame extends Observable
     //Metodi per controllare se le mani del giocatore sono sballate
     public boolean isMainHandBusted()
     {
-        return player.calculateScore(false)[0] > 21;
+        return player.isBust();
     }
     public boolean isSplitHandBusted()
     {
-        return player.calculateScore(true)[0] > 21;
+        return player.getSplitHandValue().isBust();
     }
 
     //Metodo per ottenere la mani degli AI Players
@@ -1,18 +1,31 @@
 package Model;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Classe astratta che rappresenta un partecipante al gioco del Blackjack.
  * Ogni partecipante ha una mano di carte e metodi per gestire e calcolare il punteggio.
+ * Il punteggio della mano è mantenuto in modo incrementale da un {@link HandValue},
+ * per cui tutte le modifiche alla mano devono passare dai metodi di questa classe.
  */
 public abstract class BlackJackParticipant {
 
     /**
      * Lista di carte che rappresenta la mano del partecipante.
      */
-    protected List<Card> hand = new ArrayList<>();
+    protected final List<Card> hand = new ArrayList<>();
+
+    /**
+     * Vista non modificabile della mano, restituita da {@link #getHand()}.
+     */
+    private final List<Card> handView = Collections.unmodifiableList(hand);
+
+    /**
+     * Punteggio della mano, aggiornato a ogni carta aggiunta.
+     */
+    protected final HandValue handValue = new HandValue();
 
     /**
      * Aggiunge una carta alla mano del partecipante.
@@ -21,6 +34,7 @@ public abstract class BlackJackParticipant {
      */
     public void addCard(Card card) {
         hand.add(card);
+        handValue.add(card);
     }
 
     /**
@@ -28,16 +42,35 @@ public abstract class BlackJackParticipant {
      */
     public void clearHand() {
         hand.clear();
+        handValue.reset();
+    }
+
+    /**
+     * Svuota la mano restituendo le carte al mazzo con {@link Deck#discard(Card)},
+     * che in modalità CSM le rimette nello shoe.
+     *
+     * @param deck Il mazzo da cui sono state pescate le carte.
+     */
+    public void clearHand(Deck deck) {
+        for (Card card : hand) {
+            deck.discard(card);
+        }
+        clearHand();
     }
 
     /**
      * Calcola il punteggio della mano data come parametro.
      * Gli Assi possono valere sia 1 che 11 a seconda del contesto.
+     * Per la mano del partecipante restituisce il punteggio già mantenuto in modo incrementale;
+     * nel codice nuovo sono preferibili {@link #hardTotal()} e {@link #bestTotal()}, che non allocano.
      *
      * @param hand La mano di carte di cui calcolare il punteggio.
      * @return Un array contenente i possibili punteggi della mano.
      */
     public int[] calculateHandScore(List<Card> hand) {
+        if (hand == this.hand || hand == handView) {
+            return handValue.toScoreArray();
+        }
         int totalScore = 0;
         int aceCount = 0;
 
@@ -55,6 +88,43 @@ public abstract class BlackJackParticipant {
         return (maxScore > 21) ? new int[]{minScore} : new int[]{minScore, maxScore};
     }
 
+    /**
+     * @return Il punteggio della mano con tutti gli Assi contati come 1.
+     */
+    public int hardTotal() {
+        return handValue.hardTotal();
+    }
+
+    /**
+     * @return Il punteggio migliore della mano, contando un Asso come 11 se non si sballa.
+     */
+    public int bestTotal() {
+        return handValue.bestTotal();
+    }
+
+    /**
+     * @return {@code true} se la mano contiene un Asso che può valere 11.
+     */
+    public boolean isSoft() {
+        return handValue.isSoft();
+    }
+
+    /**
+     * @return {@code true} se il punteggio della mano supera 21.
+     */
+    public boolean isBust() {
+        return handValue.isBust();
+    }
+
+    /**
+     * Restituisce il punteggio incrementale della mano.
+     *
+     * @return Il {@link HandValue} della mano del partecipante.
+     */
+    public HandValue getHandValue() {
+        return handValue;
+    }
+
     /**
      * Determina se il partecipante ha un Blackjack.
      * Un Blackjack si verifica solo se la mano contiene esattamente due carte:
@@ -96,9 +166,9 @@ public abstract class BlackJackParticipant {
     /**
      * Restituisce la mano attuale del partecipante.
      *
-     * @return Una lista contenente le carte attualmente in mano al partecipante.
+     * @return Una vista non modificabile delle carte attualmente in mano al partecipante.
      */
     public List<Card> getHand() {
-        return hand;
+        return handView;
     }
 }
@@ -1,25 +1,85 @@
 package Model;
 
-import java.util.Objects;
 /**
  * Rappresenta una carta da gioco con un valore e un seme.
- * Le carte sono immutabili dopo la creazione.
+ * Le carte sono immutabili e ne esistono esattamente 52 istanze canoniche,
+ * ottenibili tramite {@link #of(Suit, Value)}: mazzi, mani e immagini condividono
+ * quindi gli stessi oggetti e l'uguaglianza si riduce a un confronto di identità.
  */
-public class Card
+public final class Card
 {
+    /** Numero di carte distinte in un mazzo standard. */
+    public static final int DISTINCT_CARDS = Suit.values().length * Value.values().length;
+
+    /** Registro delle carte canoniche, indicizzato per ordinale. */
+    private static final Card[] CARDS = new Card[DISTINCT_CARDS];
+
+    static
+    {
+        for (Suit suit : Suit.values())
+        {
+            for (Value value : Value.values())
+            {
+                Card card = new Card(suit, value);
+                CARDS[card.ordinal] = card;
+            }
+        }
+    }
+
     private final Suit suit; // Seme della carta (es. CUORI, QUADRI, FIORI, PICCHE)
     private final Value value; // Valore della carta (es. ASSO, RE, REGINA, JACK)
+    private final int ordinal; // Posizione della carta nel registro (0-51)
 
     /**
      * Costruisce una nuova carta con un seme e un valore specifico.
+     * Usato solo per popolare il registro delle carte canoniche.
      *
      * @param suit  Il seme della carta (es. HEARTS, DIAMONDS, CLUBS, SPADES).
      * @param value Il valore della carta (es. ACE, KING, QUEEN, JACK, TWO...).
      */
-    public Card(Suit suit, Value value)
+    private Card(Suit suit, Value value)
     {
         this.suit = suit; //Inizializza il seme della carta
         this.value = value; //Inizializza il valore della carta
+        this.ordinal = ordinalOf(suit, value);
+    }
+
+    /**
+     * Restituisce l'istanza canonica della carta con il seme e il valore indicati.
+     *
+     * @param suit  Il seme della carta.
+     * @param value Il valore della carta.
+     * @return La carta canonica corrispondente.
+     */
+    public static Card of(Suit suit, Value value)
+    {
+        return CARDS[ordinalOf(suit, value)];
+    }
+
+    /**
+     * Restituisce la carta canonica con l'ordinale indicato.
+     *
+     * @param ordinal L'ordinale della carta (0-51).
+     * @return La carta canonica corrispondente.
+     */
+    public static Card fromOrdinal(int ordinal)
+    {
+        return CARDS[ordinal];
+    }
+
+    private static int ordinalOf(Suit suit, Value value)
+    {
+        return suit.ordinal() * Value.values().length + value.ordinal();
+    }
+
+    /**
+     * Restituisce l'ordinale della carta, univoco tra 0 e 51.
+     *
+     * @return L'ordinale della carta.
+     */
+    public int getOrdinal()
+    {
+        return ordinal;
     }
 
     /**
@@ -43,7 +103,8 @@ public class Card
     }
 
     /**
-     * Controlla se due carte sono uguali confrontando il seme e il valore.
+     * Controlla se due carte sono uguali. Poiché ogni combinazione di seme e valore
+     * ha una sola istanza, il confronto è di identità.
      *
      * @param obj L'oggetto da confrontare.
      * @return true se le carte hanno lo stesso seme e valore, false altrimenti.
@@ -51,16 +112,7 @@ public class Card
     @Override
     public boolean equals(Object obj)
     {
-        if (this == obj)
-        {
-            return true;
-        }
-        if (obj == null || getClass() != obj.getClass())
-        {
-            return false;
-        }
-        Card card = (Card) obj;
-        return suit == card.suit && value == card.value;
+        return this == obj;
     }
 
     /**
@@ -76,13 +128,14 @@ public class Card
 
     /**
      * Genera un valore hash per la carta, coerente con il metodo equals().
+     * L'ordinale è già un hash perfetto e viene calcolato una sola volta.
      *
      * @return Il valore hash della carta.
      */
     @Override
     public int hashCode()
     {
-        return Objects.hash(suit,value);
+        return ordinal;
     }
 
 }
@@ -0,0 +1,34 @@
+package Model;
+
+/**
+ * Strategia che sceglie l'azione con il valore atteso più alto sulla composizione corrente dello shoe,
+ * calcolata da un {@link EvSolver}.
+ * Legge la composizione direttamente dal mazzo a ogni decisione; un'istanza è legata a un mazzo
+ * e non è thread-safe, ma può essere condivisa dagli AI Players dello stesso tavolo
+ * perché giocano uno dopo l'altro.
+ */
+public class CompositionStrategy implements Strategy
+{
+    private final Deck deck;
+    private final EvSolver solver;
+    private final int[] composition = new int[DealerProbabilityCalculator.RANKS];
+
+    /**
+     * @param deck  Il mazzo da cui vengono pescate le carte del tavolo.
+     * @param rules Le regole del tavolo.
+     */
+    public CompositionStrategy(Deck deck, TableRules rules)
+    {
+        this.deck = deck;
+        this.solver = new EvSolver(rules);
+    }
+
+    @Override
+    public PlayerAction decide(BasePlayer player, boolean isSplitHand, Card dealerUpCard,
+                               boolean canDouble, boolean canSplit, boolean canSurrender)
+    {
+        deck.fillComposition(composition);
+        return EvSolver.bestAction(solver.evaluate(player, isSplitHand, dealerUpCard, composition,
+                canDouble, canSplit, canSurrender));
+    }
+}
@@ -0,0 +1,60 @@
+package Model;
+
+/**
+ * Sistemi di conteggio delle carte supportati dal {@link Deck}.
+ * Ogni sistema assegna un valore (tag) a ciascun rango: il conteggio progressivo è la somma dei tag
+ * delle carte già pescate dallo shoe.
+ */
+public enum CountSystem
+{
+    // Tag indicizzati per punti della carta meno uno: Asso, 2, 3, ..., 9, carte da dieci
+    HI_LO(true, -1, 1, 1, 1, 1, 1, 0, 0, 0, -1),
+    KO(false, -1, 1, 1, 1, 1, 1, 1, 0, 0, -1),
+    OMEGA_II(true, 0, 1, 1, 2, 2, 2, 1, 0, -1, -2);
+
+    private final boolean balanced; // true se la somma dei tag su un mazzo completo è zero
+    private final int[] tags;
+
+    /**
+     * Costruttore per l'enum CountSystem.
+     *
+     * @param balanced {@code true} se il sistema è bilanciato.
+     * @param tags     I tag dei ranghi, dall'Asso alle carte da dieci.
+     */
+    CountSystem(boolean balanced, int... tags)
+    {
+        this.balanced = balanced;
+        this.tags = tags;
+    }
+
+    /**
+     * Restituisce il tag di una carta.
+     *
+     * @param points I punti della carta (Asso = 1).
+     * @return Il valore da sommare al conteggio quando la carta viene pescata.
+     */
+    public int tag(int points)
+    {
+        return tags[points - 1];
+    }
+
+    /**
+     * @return {@code true} se il sistema è bilanciato e quindi il conteggio vero ha senso.
+     */
+    public boolean isBalanced()
+    {
+        return balanced;
+    }
+
+    /**
+     * Restituisce il conteggio progressivo di uno shoe appena mescolato.
+     * I sistemi bilanciati partono da zero; il KO parte da 4 - 4 × mazzi, così che il pivot sia +4.
+     *
+     * @param numDecks Il numero di mazzi nello shoe.
+     * @return Il conteggio iniziale.
+     */
+    public int initialRunningCount(int numDecks)
+    {
+        return balanced ? 0 : 4 - 4 * numDecks;
+    }
+}
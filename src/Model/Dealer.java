@@ -17,25 +17,31 @@ public class Dealer extends BlackJackParticipant
      */
     public void draw(Deck deck)
     {
-        hand.add(deck.drawCard());
+        addCard(deck.drawCard());
     }
 
     /**
-     * Aggiunge una carta direttamente alla mano del dealer.
+     * Gioca il turno del dealer con le regole predefinite: pesca finché il punteggio è inferiore a 17.
      *
-     * @param card La carta da aggiungere.
+     * @param deck Il mazzo da cui pescare le carte.
      */
-    public void addCard(Card card)
+    public void playTurn(Deck deck)
     {
-        hand.add(card);
+        playTurn(deck, TableRules.DEFAULT);
     }
 
-
     /**
-     * Pulisce la mano del dealer per iniziare una nuova partita.
+     * Gioca il turno del dealer: pesca finché il punteggio è inferiore a 17,
+     * oppure a 18 su una mano morbida se le regole prevedono H17.
+     *
+     * @param deck  Il mazzo da cui pescare le carte.
+     * @param rules Le regole del tavolo.
      */
-    public void clearHand()
+    public void playTurn(Deck deck, TableRules rules)
     {
-        hand.clear();
+        while (bestTotal() < rules.dealerStandTotal(isSoft()))
+        {
+            draw(deck);
+        }
     }
 }
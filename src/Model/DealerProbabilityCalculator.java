@@ -0,0 +1,358 @@
+package Model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Calcolatore esatto della distribuzione dei punteggi finali del dealer.
+ * Data la composizione delle carte rimaste nello shoe e la carta scoperta del dealer,
+ * restituisce la probabilità che il dealer finisca con 17, 18, 19, 20, 21, sballi
+ * o abbia un Blackjack, seguendo la regola di {@link Dealer#playTurn(Deck, TableRules)}
+ * (il dealer pesca finché il punteggio migliore è inferiore a 17, o a 18 su una mano morbida con H17).
+ * <p>
+ * La composizione è un vettore di {@link #RANKS} contatori indicizzato per punti della
+ * carta meno uno (Asso = 0, carte da dieci = 9). Ogni sotto-composizione visitata viene
+ * memorizzata in una tabella hash ad indirizzamento aperto di capacità fissa, con chiave
+ * la composizione impacchettata in un {@code long} insieme allo stato del dealer:
+ * le richieste ripetute durante lo stesso shoe si risolvono con poche letture.
+ * Quando la tabella è piena viene svuotata, così che la memoria resti limitata.
+ * <p>
+ * Un'istanza non è thread-safe: ogni thread deve usare il proprio calcolatore.
+ */
+public class DealerProbabilityCalculator
+{
+    /** Numero di ranghi distinti della composizione (Asso, 2, ..., 9, carte da dieci). */
+    public static final int RANKS = 10;
+
+    /** Indice della probabilità di sballo nella distribuzione. */
+    public static final int BUST = 5;
+
+    /** Indice della probabilità di Blackjack del dealer nella distribuzione. */
+    public static final int BLACKJACK = 6;
+
+    /** Numero di esiti della distribuzione: 17-21 (indici 0-4), sballo e Blackjack. */
+    public static final int OUTCOMES = 7;
+
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final int MAX_DEPTH = 32;
+
+    // Bit riservati a ciascun rango nella chiave: 6 bit per Asso-9, 8 bit per le carte da dieci
+    private static final int SMALL_RANK_BITS = 6;
+    private static final int TEN_BITS = 8;
+
+    private final long[] keys;
+    private final int[] states; // Stato del dealer + 1, zero indica una cella vuota
+    private final double[] values;
+    private final int mask;
+    private int used;
+    private final TableRules rules;
+
+    private final int[] counts = new int[RANKS];
+    private int total;
+    private long key;
+    private boolean cacheable;
+    private final double[][] scratch = new double[MAX_DEPTH][OUTCOMES];
+
+    /**
+     * Crea un calcolatore per le regole predefinite con la tabella di memorizzazione di dimensione predefinita.
+     */
+    public DealerProbabilityCalculator()
+    {
+        this(TableRules.DEFAULT, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Crea un calcolatore per le regole indicate con la tabella di memorizzazione di dimensione predefinita.
+     *
+     * @param rules Le regole del tavolo.
+     */
+    public DealerProbabilityCalculator(TableRules rules)
+    {
+        this(rules, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Crea un calcolatore con una tabella di memorizzazione di capacità specificata.
+     *
+     * @param rules    Le regole del tavolo, da cui dipende se il dealer pesca sul 17 morbido.
+     * @param capacity Numero massimo di celle della tabella, arrotondato alla potenza di due successiva.
+     * @throws IllegalArgumentException se la capacità non è positiva.
+     */
+    public DealerProbabilityCalculator(TableRules rules, int capacity)
+    {
+        if (capacity <= 0)
+        {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        keys = new long[size];
+        states = new int[size];
+        values = new double[size * OUTCOMES];
+        mask = size - 1;
+        this.rules = rules;
+    }
+
+    /**
+     * Costruisce il vettore di composizione di una lista di carte.
+     *
+     * @param cards Le carte, ad esempio quelle restituite da {@link Deck#getRemainingCards()}.
+     * @return Il numero di carte per rango, indicizzato per punti meno uno.
+     */
+    public static int[] composition(List<Card> cards)
+    {
+        int[] composition = new int[RANKS];
+        for (Card card : cards)
+        {
+            composition[card.getCardValueType().getValue() - 1]++;
+        }
+        return composition;
+    }
+
+    /**
+     * Calcola la distribuzione dei punteggi finali del dealer sulle carte rimaste nello shoe.
+     *
+     * @param remaining Le carte ancora da pescare.
+     * @param upCard    La carta scoperta del dealer.
+     * @return La distribuzione degli esiti, indicizzata come descritto in {@link #OUTCOMES}.
+     */
+    public double[] distribution(List<Card> remaining, Card upCard)
+    {
+        return distribution(composition(remaining), upCard.getCardValueType().getValue(), false);
+    }
+
+    /**
+     * Calcola la distribuzione dei punteggi finali del dealer su una composizione dello shoe.
+     *
+     * @param composition      Il numero di carte rimaste per rango; non viene modificato.
+     * @param upPoints         I punti della carta scoperta del dealer (Asso = 1).
+     * @param noBlackjack      {@code true} per condizionare sul fatto che il dealer non abbia Blackjack,
+     *                         come dopo il controllo della carta coperta.
+     * @return La distribuzione degli esiti; con {@code noBlackjack} la probabilità di Blackjack è zero.
+     */
+    public double[] distribution(int[] composition, int upPoints, boolean noBlackjack)
+    {
+        double[] result = new double[OUTCOMES];
+        distribution(composition, upPoints, noBlackjack, result);
+        return result;
+    }
+
+    /**
+     * Variante senza allocazioni di {@link #distribution(int[], int, boolean)}.
+     *
+     * @param composition Il numero di carte rimaste per rango; non viene modificato.
+     * @param upPoints    I punti della carta scoperta del dealer (Asso = 1).
+     * @param noBlackjack {@code true} per condizionare sull'assenza di Blackjack del dealer.
+     * @param out         Array di almeno {@link #OUTCOMES} elementi in cui scrivere la distribuzione.
+     */
+    public void distribution(int[] composition, int upPoints, boolean noBlackjack, double[] out)
+    {
+        if (upPoints < 1 || upPoints > 10)
+        {
+            throw new IllegalArgumentException("Up card points must be between 1 and 10");
+        }
+        load(composition);
+        Arrays.fill(out, 0, OUTCOMES, 0.0);
+        if (total == 0)
+        {
+            out[BUST] = 1.0;
+            return;
+        }
+
+        // Carta coperta: il Blackjack è possibile solo con le prime due carte
+        double[] child = scratch[1];
+        double blackjack = 0.0;
+        for (int rank = 0; rank < RANKS; rank++)
+        {
+            int count = counts[rank];
+            if (count == 0)
+            {
+                continue;
+            }
+            double p = (double) count / total;
+            int points = rank + 1;
+            if ((upPoints == 1 && points == 10) || (upPoints == 10 && points == 1))
+            {
+                blackjack += p;
+                continue;
+            }
+            remove(rank);
+            solve(upPoints + points, upPoints == 1 || points == 1, 1, child);
+            restore(rank);
+            for (int i = 0; i < BLACKJACK; i++)
+            {
+                out[i] += p * child[i];
+            }
+        }
+
+        if (noBlackjack)
+        {
+            if (blackjack < 1.0)
+            {
+                double scale = 1.0 / (1.0 - blackjack);
+                for (int i = 0; i < BLACKJACK; i++)
+                {
+                    out[i] *= scale;
+                }
+            }
+        } else
+        {
+            out[BLACKJACK] = blackjack;
+        }
+    }
+
+    /**
+     * Svuota la tabella di memorizzazione.
+     */
+    public void clear()
+    {
+        Arrays.fill(states, 0);
+        used = 0;
+    }
+
+    /**
+     * Calcola la distribuzione degli esiti dallo stato corrente del dealer sulla composizione corrente.
+     *
+     * @param hard  Il punteggio duro del dealer (Assi contati come 1).
+     * @param soft  {@code true} se il dealer ha almeno un Asso.
+     * @param depth Profondità della ricorsione, usata per scegliere l'array di appoggio dei figli.
+     * @param out   Array in cui scrivere la distribuzione.
+     */
+    private void solve(int hard, boolean soft, int depth, double[] out)
+    {
+        Arrays.fill(out, 0.0);
+        if (hard > 21)
+        {
+            out[BUST] = 1.0;
+            return;
+        }
+        boolean softHand = soft && hard + 10 <= 21;
+        int best = softHand ? hard + 10 : hard;
+        if (best >= rules.dealerStandTotal(softHand))
+        {
+            out[best - 17] = 1.0;
+            return;
+        }
+        if (total == 0)
+        {
+            out[BUST] = 1.0; // Shoe esaurito: caso degenere trattato come sballo
+            return;
+        }
+
+        int state = (hard << 1 | (soft ? 1 : 0)) + 1;
+        if (cacheable && lookup(state, out))
+        {
+            return;
+        }
+
+        double[] child = scratch[Math.min(depth + 1, MAX_DEPTH - 1)];
+        for (int rank = 0; rank < RANKS; rank++)
+        {
+            int count = counts[rank];
+            if (count == 0)
+            {
+                continue;
+            }
+            double p = (double) count / total;
+            remove(rank);
+            solve(hard + rank + 1, soft || rank == 0, depth + 1, child);
+            restore(rank);
+            for (int i = 0; i < BLACKJACK; i++)
+            {
+                out[i] += p * child[i];
+            }
+        }
+
+        if (cacheable)
+        {
+            store(state, out);
+        }
+    }
+
+    private void load(int[] composition)
+    {
+        total = 0;
+        key = 0L;
+        cacheable = true;
+        for (int rank = 0; rank < RANKS; rank++)
+        {
+            int count = composition[rank];
+            if (count < 0)
+            {
+                throw new IllegalArgumentException("Card counts must not be negative");
+            }
+            counts[rank] = count;
+            total += count;
+            if (!fitsKey(rank, count))
+            {
+                cacheable = false; // Il contatore non entra nella chiave: si calcola senza memorizzare
+            }
+            key += (long) count << shift(rank);
+        }
+    }
+
+    private void remove(int rank)
+    {
+        counts[rank]--;
+        total--;
+        key -= 1L << shift(rank);
+    }
+
+    private void restore(int rank)
+    {
+        counts[rank]++;
+        total++;
+        key += 1L << shift(rank);
+    }
+
+    /**
+     * @return La posizione del contatore del rango nella composizione impacchettata in un {@code long}.
+     */
+    static int shift(int rank)
+    {
+        return rank * SMALL_RANK_BITS;
+    }
+
+    /**
+     * @return {@code true} se il contatore del rango entra nei bit riservati della composizione impacchettata.
+     */
+    static boolean fitsKey(int rank, int count)
+    {
+        return count < 1 << (rank == RANKS - 1 ? TEN_BITS : SMALL_RANK_BITS);
+    }
+
+    private int slot(int state)
+    {
+        long h = (key ^ ((long) state << 58)) * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 40) & mask;
+    }
+
+    private boolean lookup(int state, double[] out)
+    {
+        for (int i = slot(state); states[i] != 0; i = (i + 1) & mask)
+        {
+            if (states[i] == state && keys[i] == key)
+            {
+                System.arraycopy(values, i * OUTCOMES, out, 0, OUTCOMES);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void store(int state, double[] result)
+    {
+        if (used >= (mask + 1) - ((mask + 1) >> 2))
+        {
+            clear(); // Tabella piena al 75%: si ricomincia per mantenere la memoria limitata
+        }
+        int i = slot(state);
+        while (states[i] != 0)
+        {
+            i = (i + 1) & mask;
+        }
+        states[i] = state;
+        keys[i] = key;
+        System.arraycopy(result, 0, values, i * OUTCOMES, OUTCOMES);
+        used++;
+    }
+}
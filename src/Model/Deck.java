@@ -1,18 +1,49 @@
 package Model;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * La classe Deck rappresenta un mazzo di carte utilizzato nel gioco del Blackjack.
  * Il mazzo può essere composto da più mazzi di carte standard (tra 4 e 8).
  * Supporta operazioni di mescolamento, estrazione di carte e gestione delle carte rimanenti.
+ * <p>
+ * Le carte sono conservate in un array di dimensione fissa (lo "shoe") e un cursore indica
+ * la prossima carta da pescare: l'estrazione è a tempo costante e il rimescolamento
+ * riporta il cursore all'inizio e mescola l'array sul posto, senza creare nuove carte.
+ * <p>
+ * Il mazzo mantiene anche il numero di carte rimaste per rango e il conteggio progressivo
+ * di ogni {@link CountSystem}, aggiornati a tempo costante a ogni carta pescata.
+ * <p>
+ * Una carta di taglio, posta alla penetrazione configurata, segnala con {@link #needsShuffle()}
+ * che lo shoe va cambiato tra un round e l'altro; con uno {@link ShoePool} il nuovo shoe arriva
+ * già mescolato da un thread in background.
+ * <p>
+ * In modalità CSM (macchina a mescolamento continuo) le carte scartate a fine mano tornano
+ * subito nello shoe in una posizione casuale tra quelle ancora da pescare, a tempo costante
+ * per carta, e lo shoe non viene mai cambiato tra un round e l'altro. Il mazzo conta, per ogni carta,
+ * quante copie sono state pescate dallo shoe corrente: solo quelle possono tornarci, per cui le carte
+ * rimaste in mano da uno shoe precedente (cambiato a metà round) non ne alterano la composizione.
  */
 public class Deck
 {
-    private final List<Card> cards; // Lista di carte del mazzo
+    private final Card[] fullShoe; // Composizione completa dello shoe, usata per ricrearlo
+    private Card[] cards; // Array di carte del mazzo
+    private int cursor; // Indice della prossima carta da pescare
+    private int size; // Numero di carte valide nell'array
     private final int numDecks; // Numero di mazzi inclusi nel deck
+    private final RandomGenerator random; // Generatore usato per il mescolamento
+    private final int[] rankCounts = new int[DealerProbabilityCalculator.RANKS]; // Carte rimaste per punti meno uno
+    private final int[] runningCounts = new int[CountSystem.values().length]; // Conteggio per sistema
+    private final int[] outstanding = new int[Card.DISTINCT_CARDS]; // Carte pescate dallo shoe corrente e non ancora scartate
+    private static final CountSystem[] COUNT_SYSTEMS = CountSystem.values();
+    private static final double DEFAULT_PENETRATION = 0.75;
+    private int cutCard; // Posizione della carta di taglio
+    private ShoePool shoePool; // Fornitore di shoe già mescolati, null per mescolare sul posto
+    private boolean continuousShuffle; // true in modalità CSM
 
     /**
      * Costruttore della classe Deck.
@@ -22,69 +53,257 @@ public class Deck
      * @throws IllegalArgumentException se il numero di mazzi è inferiore a 4 o superiore a 8.
      */
     public Deck(int numDecks)
+    {
+        this(numDecks, new SplittableRandom());
+    }
+
+    /**
+     * Costruttore della classe Deck con un generatore di numeri casuali dedicato.
+     * A parità di stato iniziale del generatore, la sequenza delle carte è sempre la stessa.
+     *
+     * @param numDecks Il numero di mazzi standard da includere (deve essere tra 4 e 8).
+     * @param random   Il generatore usato per mescolare lo shoe.
+     * @throws IllegalArgumentException se il numero di mazzi è inferiore a 4 o superiore a 8.
+     */
+    public Deck(int numDecks, RandomGenerator random)
     {
         if (numDecks < 4 || numDecks > 8)
         {
             throw new IllegalArgumentException("Number of decks must be between 4 and 8");
         }
         this.numDecks = numDecks; // Salva il numero di mazzi
-        cards = new ArrayList<>();
+        this.random = random;
+
+        // Compone una sola volta lo shoe di numDecks mazzi standard con le carte canoniche
+        fullShoe = composeShoe(numDecks);
+        cards = new Card[fullShoe.length];
+        setPenetration(DEFAULT_PENETRATION);
 
-        // Popola il mazzo con numDecks mazzi standard
         refillDeck();
         shuffle();
     }
 
     /**
-     * Aggiunge una carta specifica al mazzo.
+     * Compone uno shoe ordinato di mazzi standard con le carte canoniche.
+     *
+     * @param numDecks Il numero di mazzi.
+     * @return Le carte dello shoe, mazzo per mazzo.
+     */
+    static Card[] composeShoe(int numDecks)
+    {
+        Card[] shoe = new Card[numDecks * Card.DISTINCT_CARDS];
+        int index = 0;
+        for (int i = 0; i < numDecks; i++)
+        {
+            for (Suit suit : Suit.values())
+            {
+                for (Value value : Value.values())
+                {
+                    shoe[index++] = Card.of(suit, value);
+                }
+            }
+        }
+        return shoe;
+    }
+
+    /**
+     * Mescola una porzione di un array di carte (algoritmo di Fisher-Yates sul posto).
+     *
+     * @param cards  Le carte.
+     * @param from   Indice della prima carta da mescolare.
+     * @param to     Indice successivo all'ultima carta da mescolare.
+     * @param random Il generatore da usare.
+     */
+    static void shuffle(Card[] cards, int from, int to, RandomGenerator random)
+    {
+        for (int i = to - 1; i > from; i--)
+        {
+            int j = from + random.nextInt(i - from + 1);
+            Card tmp = cards[i];
+            cards[i] = cards[j];
+            cards[j] = tmp;
+        }
+    }
+
+    /**
+     * Imposta la penetrazione, cioè la frazione dello shoe da distribuire prima della carta di taglio.
+     *
+     * @param penetration Valore in (0, 1]; con 1 lo shoe viene cambiato solo quando è esaurito.
+     * @throws IllegalArgumentException se la penetrazione è fuori dall'intervallo.
+     */
+    public void setPenetration(double penetration)
+    {
+        if (!(penetration > 0.0 && penetration <= 1.0))
+        {
+            throw new IllegalArgumentException("Penetration must be in (0, 1]");
+        }
+        cutCard = (int) Math.round(fullShoe.length * penetration);
+    }
+
+    /**
+     * Imposta il fornitore di shoe già mescolati usato da {@link #newShoe()}.
+     *
+     * @param shoePool Il fornitore, con lo stesso numero di mazzi, oppure null per mescolare sul posto.
+     * @throws IllegalArgumentException se il numero di mazzi non coincide.
+     */
+    public void setShoePool(ShoePool shoePool)
+    {
+        if (shoePool != null && shoePool.getNumDecks() != numDecks)
+        {
+            throw new IllegalArgumentException("Shoe pool must use " + numDecks + " decks");
+        }
+        this.shoePool = shoePool;
+    }
+
+    /**
+     * Attiva o disattiva la modalità CSM, in cui le carte scartate tornano subito nello shoe.
+     *
+     * @param continuousShuffle {@code true} per la macchina a mescolamento continuo.
+     */
+    public void setContinuousShuffle(boolean continuousShuffle)
+    {
+        this.continuousShuffle = continuousShuffle;
+    }
+
+    public boolean isContinuousShuffle()
+    {
+        return continuousShuffle;
+    }
+
+    /**
+     * @return {@code true} se la carta di taglio è uscita e lo shoe va cambiato prima del prossimo round;
+     *         sempre {@code false} in modalità CSM.
+     */
+    public boolean needsShuffle()
+    {
+        return !continuousShuffle && cursor >= cutCard;
+    }
+
+    /**
+     * Scarta una carta a fine mano.
+     * In modalità CSM la carta torna tra quelle da pescare in una posizione casuale: viene messa
+     * subito prima del cursore e scambiata con una posizione scelta a caso tra le carte rimaste
+     * (un passo di Fisher-Yates "inside-out"), così che l'ordine resti una permutazione uniforme.
+     * Altrimenti la carta resta negli scarti fino al prossimo shoe.
+     * <p>
+     * Una carta viene accettata solo se una sua copia è stata pescata dallo shoe corrente e non è ancora
+     * tornata: le carte di uno shoe precedente vengono ignorate, così che le carte da pescare più quelle
+     * in gioco formino sempre uno shoe completo.
+     *
+     * @param card La carta scartata.
+     */
+    public void discard(Card card)
+    {
+        if (!continuousShuffle || outstanding[card.getOrdinal()] == 0)
+        {
+            return;
+        }
+        outstanding[card.getOrdinal()]--;
+        // Ogni carta in gioco è stata pescata dallo shoe corrente, quindi il cursore è positivo
+        int slot = --cursor;
+        cards[slot] = card;
+        int points = card.getCardValueType().getValue();
+        rankCounts[points - 1]++;
+        for (int i = 0; i < COUNT_SYSTEMS.length; i++)
+        {
+            runningCounts[i] -= COUNT_SYSTEMS[i].tag(points);
+        }
+        int j = cursor + random.nextInt(size - cursor);
+        cards[slot] = cards[j];
+        cards[j] = card;
+    }
+
+    /**
+     * Sostituisce lo shoe con uno completo e mescolato, preso dal {@link ShoePool} se presente.
+     */
+    public void newShoe()
+    {
+        if (shoePool == null)
+        {
+            refillDeck();
+            shuffle();
+            return;
+        }
+        // L'array corrente torna al pool per essere rimescolato, se non è stato ingrandito
+        cards = shoePool.take(cards.length == fullShoe.length ? cards : null);
+        size = fullShoe.length;
+        cursor = 0;
+        resetCounts();
+    }
+
+    /**
+     * Aggiunge una carta specifica in fondo al mazzo.
      *
      * @param card La carta da aggiungere al mazzo.
      */
     public void addCardDeck(Card card)
     {
-        cards.add(card);
+        if (size == cards.length)
+        {
+            cards = Arrays.copyOf(cards, cards.length * 2);
+        }
+        cards[size++] = card;
+        int points = card.getCardValueType().getValue();
+        rankCounts[points - 1]++;
+        for (int i = 0; i < COUNT_SYSTEMS.length; i++)
+        {
+            runningCounts[i] -= COUNT_SYSTEMS[i].tag(points); // La carta torna da pescare
+        }
     }
 
     /**
-     * Mescola il mazzo di carte casualmente.
+     * Mescola casualmente le carte ancora da pescare (algoritmo di Fisher-Yates sul posto).
      */
     public void shuffle()
     {
-        Collections.shuffle(cards);
+        shuffle(cards, cursor, size, random);
     }
 
     /**
      * Pesca una carta dalla cima del mazzo.
-     * Se il mazzo è vuoto, viene ricreato e rimescolato prima di restituire una carta.
+     * Se il mazzo è vuoto a metà round, viene sostituito con {@link #newShoe()} prima di restituire una carta.
      *
      * @return La carta pescata dal mazzo.
      */
     public Card drawCard()
     {
-        if (cards.isEmpty())
+        if (cursor == size)
         {
-            refillDeck(); // Ricrea il mazzo
-            shuffle();    // Mescola il mazzo
+            newShoe(); // Ricrea e mescola il mazzo
         }
-        return cards.remove(0);
+        Card card = cards[cursor++];
+        outstanding[card.getOrdinal()]++;
+        int points = card.getCardValueType().getValue();
+        rankCounts[points - 1]--;
+        for (int i = 0; i < COUNT_SYSTEMS.length; i++)
+        {
+            runningCounts[i] += COUNT_SYSTEMS[i].tag(points);
+        }
+        return card;
     }
 
     /**
-     * Ricrea il mazzo con un set completo di carte e lo svuota prima di riempirlo nuovamente.
+     * Ricrea il mazzo con un set completo di carte, riutilizzando le istanze esistenti.
      */
     private void refillDeck()
     {
-        cards.clear();
+        System.arraycopy(fullShoe, 0, cards, 0, fullShoe.length);
+        size = fullShoe.length;
+        cursor = 0;
+        resetCounts();
+    }
 
-        for (int i = 0; i < numDecks; i++) // Ora usa numDecks memorizzato
+    /**
+     * Riporta i contatori per rango e i conteggi allo stato di uno shoe completo, senza carte in gioco.
+     */
+    private void resetCounts()
+    {
+        Arrays.fill(outstanding, 0);
+        Arrays.fill(rankCounts, 4 * numDecks);
+        rankCounts[DealerProbabilityCalculator.RANKS - 1] = 16 * numDecks; // 10, J, Q, K
+        for (int i = 0; i < COUNT_SYSTEMS.length; i++)
         {
-            for (Suit suit : Suit.values())
-            {
-                for (Value value : Value.values())
-                {
-                    cards.add(new Card(suit, value));
-                }
-            }
+            runningCounts[i] = COUNT_SYSTEMS[i].initialRunningCount(numDecks);
         }
     }
 
@@ -95,7 +314,52 @@ public class Deck
      */
     public int cardsRemaining()
     {
-        return cards.size();
+        return size - cursor;
+    }
+
+    /**
+     * Scrive la composizione delle carte ancora da pescare, senza copiare lo shoe.
+     *
+     * @param counts Array di almeno {@link DealerProbabilityCalculator#RANKS} elementi,
+     *               riempito con il numero di carte per punti meno uno (Asso = 0, carte da dieci = 9).
+     */
+    public void fillComposition(int[] counts)
+    {
+        System.arraycopy(rankCounts, 0, counts, 0, rankCounts.length);
+    }
+
+    /**
+     * Restituisce il numero di carte di un rango ancora da pescare.
+     *
+     * @param points I punti del rango (Asso = 1, carte da dieci = 10).
+     * @return Il numero di carte rimaste di quel rango.
+     */
+    public int getRankCount(int points)
+    {
+        return rankCounts[points - 1];
+    }
+
+    /**
+     * Restituisce il conteggio progressivo delle carte pescate dall'ultimo rimescolamento completo.
+     *
+     * @param system Il sistema di conteggio.
+     * @return Il conteggio progressivo.
+     */
+    public int getRunningCount(CountSystem system)
+    {
+        return runningCounts[system.ordinal()];
+    }
+
+    /**
+     * Restituisce il conteggio vero: il conteggio progressivo diviso per i mazzi ancora da pescare.
+     *
+     * @param system Il sistema di conteggio.
+     * @return Il conteggio vero; sotto il mezzo mazzo il divisore resta fermo a 0,5.
+     */
+    public double getTrueCount(CountSystem system)
+    {
+        double decksRemaining = Math.max(cardsRemaining() / 52.0, 0.5);
+        return runningCounts[system.ordinal()] / decksRemaining;
     }
 
     /**
@@ -105,7 +369,7 @@ public class Deck
      */
     public List<Card> getRemainingCards()
     {
-        return new ArrayList<>(cards);
+        return new ArrayList<>(Arrays.asList(cards).subList(cursor, size));
     }
 
     /**
@@ -117,9 +381,9 @@ public class Deck
     public String toString()
     {
         StringBuilder sb = new StringBuilder();
-        for (Card card : cards)
+        for (int i = cursor; i < size; i++)
         {
-            sb.append(card.toString()).append("\n");
+            sb.append(cards[i].toString()).append("\n");
         }
         return sb.toString().trim();
     }
@@ -0,0 +1,386 @@
+package Model;
+
+import java.util.Arrays;
+
+/**
+ * Risolutore del valore atteso delle decisioni del giocatore, dipendente dalla composizione dello shoe.
+ * Per una mano, la carta scoperta del dealer e le carte rimaste calcola il valore atteso di
+ * ogni azione consentita, espresso in unità della scommessa iniziale e indicizzato per
+ * {@link PlayerAction#ordinal()} ({@link Double#NaN} per le azioni non consentite).
+ * <p>
+ * Le regole sono quelle del {@link RoundEngine} con le {@link TableRules} del tavolo: il dealer controlla
+ * il Blackjack solo con l'Asso scoperto (assicurazione), con un dieci scoperto il suo Blackjack vale
+ * come un 21; il raddoppio è consentito solo sulle prime due carte, dopo la divisione solo con DAS,
+ * e la divisione è una sola.
+ * <p>
+ * La distribuzione del dealer viene calcolata una volta sola sulla composizione iniziale,
+ * mentre le carte pescate dal giocatore vengono tolte dalla composizione a ogni passo.
+ * Il valore della divisione è approssimato come il doppio del valore di una mano che parte
+ * dalla carta della coppia. I valori delle sotto-mani sono memorizzati in una tabella hash di
+ * capacità fissa, svuotata quando cambia la situazione iniziale o quando è piena.
+ * <p>
+ * Un'istanza non è thread-safe: ogni thread deve usare il proprio risolutore.
+ */
+public class EvSolver
+{
+    private static final int DEFAULT_CAPACITY = 1 << 14;
+    private static final int RANKS = DealerProbabilityCalculator.RANKS;
+
+    private final DealerProbabilityCalculator dealerCalculator;
+    private final boolean doubleAfterSplit;
+    private final double[] dealer = new double[DealerProbabilityCalculator.OUTCOMES];
+    private final double[] standEv = new double[22]; // Valore dello stare per punteggio 0-21
+
+    private final long[] keys;
+    private final int[] states; // Stato della mano + 1, zero indica una cella vuota
+    private final double[] values;
+    private final int mask;
+    private int used;
+
+    private final int[] counts = new int[RANKS];
+    private int total;
+    private long key;
+    private boolean cacheable;
+    private long rootKey = -1L; // Composizione iniziale a cui si riferisce la tabella
+    private int rootUp;
+
+    /**
+     * Crea un risolutore per le regole predefinite con le tabelle di memorizzazione di dimensione predefinita.
+     */
+    public EvSolver()
+    {
+        this(TableRules.DEFAULT);
+    }
+
+    /**
+     * Crea un risolutore per le regole indicate con le tabelle di memorizzazione di dimensione predefinita.
+     *
+     * @param rules Le regole del tavolo.
+     */
+    public EvSolver(TableRules rules)
+    {
+        this(new DealerProbabilityCalculator(rules), rules, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Crea un risolutore che usa un calcolatore del dealer dato.
+     *
+     * @param dealerCalculator Il calcolatore delle probabilità del dealer, costruito per le stesse regole.
+     * @param rules            Le regole del tavolo.
+     * @param capacity         Numero massimo di celle della tabella, arrotondato alla potenza di due successiva.
+     * @throws IllegalArgumentException se la capacità non è positiva.
+     */
+    public EvSolver(DealerProbabilityCalculator dealerCalculator, TableRules rules, int capacity)
+    {
+        if (capacity <= 0)
+        {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.dealerCalculator = dealerCalculator;
+        this.doubleAfterSplit = rules.isDoubleAfterSplit();
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        keys = new long[size];
+        states = new int[size];
+        values = new double[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Calcola il valore atteso delle azioni per una mano di un giocatore.
+     *
+     * @param player       Il giocatore.
+     * @param isSplitHand  {@code true} per la mano divisa.
+     * @param dealerUpCard La carta scoperta del dealer.
+     * @param composition  Il numero di carte rimaste per rango (vedi {@link Deck#fillComposition(int[])}).
+     * @param canDouble    {@code true} se il raddoppio è consentito.
+     * @param canSplit     {@code true} se la divisione è consentita.
+     * @param canSurrender {@code true} se la resa è consentita.
+     * @return Il valore atteso di ogni azione, indicizzato per {@link PlayerAction#ordinal()}.
+     */
+    public double[] evaluate(BasePlayer player, boolean isSplitHand, Card dealerUpCard, int[] composition,
+                             boolean canDouble, boolean canSplit, boolean canSurrender)
+    {
+        HandValue value = isSplitHand ? player.getSplitHandValue() : player.getHandValue();
+        int pairPoints = 0;
+        if (canSplit)
+        {
+            pairPoints = player.getHand().get(0).getCardValueType().getValue();
+        }
+        return evaluate(value.hardTotal(), value.aceCount() > 0, pairPoints,
+                dealerUpCard.getCardValueType().getValue(), composition, canDouble, canSurrender);
+    }
+
+    /**
+     * Calcola il valore atteso delle azioni per una mano descritta dal suo punteggio.
+     *
+     * @param hardTotal    Il punteggio duro della mano (Assi contati come 1).
+     * @param hasAce       {@code true} se la mano contiene almeno un Asso.
+     * @param pairPoints   I punti della coppia se la divisione è consentita, altrimenti 0.
+     * @param upPoints     I punti della carta scoperta del dealer (Asso = 1).
+     * @param composition  Il numero di carte rimaste per rango; non viene modificato.
+     * @param canDouble    {@code true} se il raddoppio è consentito.
+     * @param canSurrender {@code true} se la resa è consentita.
+     * @return Il valore atteso di ogni azione, indicizzato per {@link PlayerAction#ordinal()}.
+     */
+    public double[] evaluate(int hardTotal, boolean hasAce, int pairPoints, int upPoints, int[] composition,
+                             boolean canDouble, boolean canSurrender)
+    {
+        prepare(composition, upPoints);
+        double[] ev = new double[PlayerAction.values().length];
+        Arrays.fill(ev, Double.NaN);
+
+        int best = best(hardTotal, hasAce);
+        ev[PlayerAction.STAND.ordinal()] = best > 21 ? -1.0 : standEv[best];
+        if (best < 21 && total > 0)
+        {
+            ev[PlayerAction.HIT.ordinal()] = hit(hardTotal, hasAce);
+            if (canDouble)
+            {
+                ev[PlayerAction.DOUBLE.ordinal()] = doubleDown(hardTotal, hasAce);
+            }
+        }
+        if (pairPoints > 0 && total > 0)
+        {
+            ev[PlayerAction.SPLIT.ordinal()] = 2.0 * splitHand(pairPoints);
+        }
+        if (canSurrender)
+        {
+            ev[PlayerAction.SURRENDER.ordinal()] = -0.5;
+        }
+        return ev;
+    }
+
+    /**
+     * Restituisce l'azione con il valore atteso più alto.
+     *
+     * @param ev I valori attesi restituiti da {@code evaluate}.
+     * @return L'azione migliore tra quelle consentite.
+     */
+    public static PlayerAction bestAction(double[] ev)
+    {
+        PlayerAction best = PlayerAction.STAND;
+        for (PlayerAction action : PlayerAction.values())
+        {
+            if (!Double.isNaN(ev[action.ordinal()]) && ev[action.ordinal()] > ev[best.ordinal()])
+            {
+                best = action;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Svuota la tabella di memorizzazione.
+     */
+    public void clear()
+    {
+        Arrays.fill(states, 0);
+        used = 0;
+        rootKey = -1L;
+    }
+
+    /**
+     * Carica la composizione iniziale e, se la situazione è cambiata, ricalcola la distribuzione
+     * del dealer e il valore dello stare per ogni punteggio.
+     */
+    private void prepare(int[] composition, int upPoints)
+    {
+        total = 0;
+        key = 0L;
+        cacheable = true;
+        for (int rank = 0; rank < RANKS; rank++)
+        {
+            int count = composition[rank];
+            counts[rank] = count;
+            total += count;
+            cacheable &= DealerProbabilityCalculator.fitsKey(rank, count);
+            key += (long) count << DealerProbabilityCalculator.shift(rank);
+        }
+        if (cacheable && key == rootKey && upPoints == rootUp)
+        {
+            return;
+        }
+        clear();
+        if (cacheable)
+        {
+            rootKey = key;
+            rootUp = upPoints;
+        }
+
+        // Con l'Asso scoperto il Blackjack del dealer è già stato escluso dall'assicurazione
+        dealerCalculator.distribution(counts, upPoints, upPoints == 1, dealer);
+        double bust = dealer[DealerProbabilityCalculator.BUST];
+        for (int hand = 0; hand <= 21; hand++)
+        {
+            double ev = bust;
+            for (int dealerTotal = 17; dealerTotal <= 21; dealerTotal++)
+            {
+                double p = dealer[dealerTotal - 17];
+                if (dealerTotal == 21)
+                {
+                    p += dealer[DealerProbabilityCalculator.BLACKJACK];
+                }
+                if (hand > dealerTotal)
+                {
+                    ev += p;
+                } else if (hand < dealerTotal)
+                {
+                    ev -= p;
+                }
+            }
+            standEv[hand] = ev;
+        }
+    }
+
+    /**
+     * @return Il valore atteso del pescare una carta e poi giocare nel modo migliore.
+     */
+    private double hit(int hard, boolean hasAce)
+    {
+        double ev = 0.0;
+        int cards = total;
+        for (int rank = 0; rank < RANKS; rank++)
+        {
+            int count = counts[rank];
+            if (count == 0)
+            {
+                continue;
+            }
+            double p = (double) count / cards;
+            remove(rank);
+            ev += p * play(hard + rank + 1, hasAce || rank == 0);
+            restore(rank);
+        }
+        return ev;
+    }
+
+    /**
+     * @return Il valore atteso di una delle due mani dopo la divisione, con il raddoppio se consentito.
+     */
+    private double splitHand(int pairPoints)
+    {
+        double ev = 0.0;
+        int cards = total;
+        for (int rank = 0; rank < RANKS; rank++)
+        {
+            int count = counts[rank];
+            if (count == 0)
+            {
+                continue;
+            }
+            double p = (double) count / cards;
+            int hard = pairPoints + rank + 1;
+            boolean hasAce = pairPoints == 1 || rank == 0;
+            remove(rank);
+            double value = play(hard, hasAce);
+            if (doubleAfterSplit && total > 0)
+            {
+                value = Math.max(value, doubleDown(hard, hasAce));
+            }
+            restore(rank);
+            ev += p * value;
+        }
+        return ev;
+    }
+
+    /**
+     * @return Il valore atteso del raddoppio: una sola carta e la scommessa doppia.
+     */
+    private double doubleDown(int hard, boolean hasAce)
+    {
+        double ev = 0.0;
+        for (int rank = 0; rank < RANKS; rank++)
+        {
+            if (counts[rank] == 0)
+            {
+                continue;
+            }
+            int best = best(hard + rank + 1, hasAce || rank == 0);
+            ev += (double) counts[rank] / total * (best > 21 ? -1.0 : standEv[best]);
+        }
+        return 2.0 * ev;
+    }
+
+    /**
+     * @return Il valore atteso della mano giocata nel modo migliore tra stare e pescare.
+     */
+    private double play(int hard, boolean hasAce)
+    {
+        if (hard > 21)
+        {
+            return -1.0;
+        }
+        int best = best(hard, hasAce);
+        double stand = standEv[best];
+        if (best == 21 || total == 0)
+        {
+            return stand;
+        }
+
+        int state = (hard << 1 | (hasAce ? 1 : 0)) + 1;
+        int slot = -1;
+        if (cacheable)
+        {
+            slot = slot(state);
+            while (states[slot] != 0)
+            {
+                if (states[slot] == state && keys[slot] == key)
+                {
+                    return values[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        double ev = Math.max(stand, hit(hard, hasAce));
+        if (cacheable)
+        {
+            store(state, ev);
+        }
+        return ev;
+    }
+
+    private static int best(int hard, boolean hasAce)
+    {
+        return hasAce && hard + 10 <= 21 ? hard + 10 : hard;
+    }
+
+    private void remove(int rank)
+    {
+        counts[rank]--;
+        total--;
+        key -= 1L << DealerProbabilityCalculator.shift(rank);
+    }
+
+    private void restore(int rank)
+    {
+        counts[rank]++;
+        total++;
+        key += 1L << DealerProbabilityCalculator.shift(rank);
+    }
+
+    private int slot(int state)
+    {
+        long h = (key ^ ((long) state << 58)) * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 40) & mask;
+    }
+
+    private void store(int state, double ev)
+    {
+        if (used >= (mask + 1) - ((mask + 1) >> 2))
+        {
+            // Tabella piena al 75%: si ricomincia mantenendo la situazione iniziale
+            Arrays.fill(states, 0);
+            used = 0;
+        }
+        int i = slot(state);
+        while (states[i] != 0)
+        {
+            i = (i + 1) & mask;
+        }
+        states[i] = state;
+        keys[i] = key;
+        values[i] = ev;
+        used++;
+    }
+}
@@ -0,0 +1,228 @@
+package Model;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Decodificatore dei frame prodotti da {@link FrameEncoder}.
+ * Legge un frame alla volta in un buffer riutilizzato e ne inoltra gli eventi a un {@link Handler}.
+ * Un'istanza non è thread-safe.
+ */
+public class FrameDecoder
+{
+    /**
+     * Destinatario degli eventi decodificati: oltre agli aggiornamenti del tavolo riceve
+     * le opzioni del turno e gli errori.
+     */
+    public interface Handler extends TableListener
+    {
+        /**
+         * @param mask Le azioni consentite, un bit per ordinale di {@link PlayerAction},
+         *             più {@link FrameEncoder#OPTION_SPLIT_HAND} se è attiva la mano divisa.
+         */
+        void optionsChanged(int mask);
+
+        /**
+         * @param message Il motivo per cui il comando è stato rifiutato.
+         */
+        void error(String message);
+    }
+
+    private static final RoundEngine.Phase[] PHASES = RoundEngine.Phase.values();
+
+    /** Lunghezza massima di un frame: un round produce al più qualche centinaio di byte. */
+    public static final int MAX_FRAME_LENGTH = 1 << 16;
+
+    private final Handler handler;
+    private byte[] buffer = new byte[64];
+    private byte[] frame; // Frame in decodifica
+    private int position; // Prossimo byte da leggere nel frame
+    private int end; // Fine degli eventi del frame
+
+    /**
+     * @param handler Il destinatario degli eventi.
+     */
+    public FrameDecoder(Handler handler)
+    {
+        this.handler = handler;
+    }
+
+    /**
+     * Legge un frame dallo stream e ne inoltra gli eventi.
+     *
+     * @param in Lo stream da cui leggere.
+     * @return {@code false} se lo stream è terminato prima dell'inizio di un frame.
+     * @throws IOException se la lettura fallisce o il frame è troncato, troppo lungo o non valido.
+     */
+    public boolean read(InputStream in) throws IOException
+    {
+        int first = in.read();
+        if (first < 0)
+        {
+            return false;
+        }
+        int length = first & 0x7F;
+        for (int shift = 7; (first & 0x80) != 0; shift += 7)
+        {
+            first = in.read();
+            if (first < 0 || shift > 28)
+            {
+                throw new IOException("Malformed frame length");
+            }
+            length |= (first & 0x7F) << shift;
+        }
+        if (length < 0 || length > MAX_FRAME_LENGTH)
+        {
+            throw new IOException("Frame length out of range: " + Integer.toUnsignedString(length));
+        }
+        if (length > buffer.length)
+        {
+            buffer = new byte[Math.min(Math.max(length, buffer.length * 2), MAX_FRAME_LENGTH)];
+        }
+        int read = in.readNBytes(buffer, 0, length);
+        if (read < length)
+        {
+            throw new EOFException("Truncated frame");
+        }
+        decode(buffer, 0, length);
+        return true;
+    }
+
+    /**
+     * Decodifica gli eventi di un frame già letto, senza il prefisso di lunghezza.
+     * Ogni evento viene inoltrato solo dopo averne letto e validato tutti i campi entro i limiti del frame.
+     *
+     * @param frame  Il buffer che contiene gli eventi.
+     * @param offset La posizione del primo evento.
+     * @param length Il numero di byte di eventi.
+     * @throws IOException se il frame contiene un'operazione o un valore sconosciuto o è troncato.
+     */
+    public void decode(byte[] frame, int offset, int length) throws IOException
+    {
+        Objects.checkFromIndexSize(offset, length, frame.length);
+        this.frame = frame;
+        position = offset;
+        end = offset + length;
+        try
+        {
+            while (position < end)
+            {
+                int op = nextByte();
+                switch (op)
+                {
+                    case FrameEncoder.CARD_MAIN:
+                    case FrameEncoder.CARD_SPLIT:
+                    {
+                        int seat = seat(nextByte());
+                        Card card = card(nextByte());
+                        handler.cardDealt(seat, op == FrameEncoder.CARD_SPLIT, card);
+                        break;
+                    }
+                    case FrameEncoder.SPLIT:
+                        handler.handSplit(seat(nextByte()));
+                        break;
+                    case FrameEncoder.CHIPS:
+                    {
+                        int seat = seat(nextByte());
+                        int value = nextVarint();
+                        handler.chipsChanged(seat, value >>> 1 ^ -(value & 1));
+                        break;
+                    }
+                    case FrameEncoder.PHASE:
+                    {
+                        int ordinal = nextByte();
+                        if (ordinal >= PHASES.length)
+                        {
+                            throw new IOException("Unknown phase " + ordinal);
+                        }
+                        handler.phaseChanged(PHASES[ordinal]);
+                        break;
+                    }
+                    case FrameEncoder.OPTIONS:
+                        handler.optionsChanged(nextByte());
+                        break;
+                    case FrameEncoder.ERROR:
+                    {
+                        int textLength = nextVarint();
+                        if (textLength < 0 || textLength > end - position)
+                        {
+                            throw new IOException("Truncated frame");
+                        }
+                        String message = new String(frame, position, textLength, StandardCharsets.UTF_8);
+                        position += textLength;
+                        handler.error(message);
+                        break;
+                    }
+                    default:
+                        throw new IOException("Unknown frame operation " + op);
+                }
+            }
+        } finally
+        {
+            this.frame = null; // Il buffer del chiamante non viene trattenuto
+        }
+    }
+
+    /**
+     * @param mask   La maschera ricevuta con {@link Handler#optionsChanged(int)}.
+     * @param action L'azione da verificare.
+     * @return {@code true} se l'azione è consentita.
+     */
+    public static boolean isAllowed(int mask, PlayerAction action)
+    {
+        return (mask & 1 << action.ordinal()) != 0;
+    }
+
+    /**
+     * @return Il prossimo byte del frame, senza segno.
+     * @throws IOException se il frame è terminato.
+     */
+    private int nextByte() throws IOException
+    {
+        if (position >= end)
+        {
+            throw new IOException("Truncated frame");
+        }
+        return frame[position++] & 0xFF;
+    }
+
+    /**
+     * @return Il prossimo varint del frame, al più 32 bit.
+     * @throws IOException se il frame è terminato o il varint è più lungo di 32 bit.
+     */
+    private int nextVarint() throws IOException
+    {
+        int value = 0;
+        for (int shift = 0; ; shift += 7)
+        {
+            int b = nextByte();
+            if (shift == 28 && (b & 0xF0) != 0)
+            {
+                throw new IOException("Malformed varint");
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+            {
+                return value;
+            }
+        }
+    }
+
+    private static Card card(int code) throws IOException
+    {
+        Card card = code < PackedCard.CODE_SPACE ? PackedCard.decode(code) : null;
+        if (card == null)
+        {
+            throw new IOException("Unknown card code " + code);
+        }
+        return card;
+    }
+
+    private static int seat(int code)
+    {
+        return code == FrameEncoder.DEALER_SEAT_CODE ? TableListener.DEALER_SEAT : code;
+    }
+}
@@ -0,0 +1,193 @@
+package Model;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Codificatore del protocollo binario compatto del tavolo.
+ * Raccoglie gli eventi di un {@link TableListener} in un frame e lo scrive in un'unica volta,
+ * così che tutti gli aggiornamenti prodotti da un comando viaggino insieme.
+ * <p>
+ * Un frame è la sua lunghezza (varint) seguita dagli eventi, ciascuno introdotto da un byte di operazione:
+ * <pre>
+ * CARD_MAIN  [posto][carta]     carta aggiunta alla mano principale
+ * CARD_SPLIT [posto][carta]     carta aggiunta alla mano divisa
+ * SPLIT      [posto]            la mano principale è stata divisa
+ * CHIPS      [posto][varint]    variazione delle fiches, codifica zigzag
+ * PHASE      [fase]             ordinale di {@link RoundEngine.Phase}
+ * OPTIONS    [maschera]         azioni consentite, un bit per ordinale di {@link PlayerAction}
+ * ERROR      [varint][UTF-8]    comando rifiutato
+ * </pre>
+ * Il posto occupa un byte ({@code 0xFF} per il dealer) e la carta il suo codice {@link PackedCard}.
+ * Il buffer cresce solo quando serve ed è riutilizzato tra un frame e l'altro.
+ * Un'istanza non è thread-safe.
+ */
+public class FrameEncoder implements TableListener
+{
+    public static final int CARD_MAIN = 1;
+    public static final int CARD_SPLIT = 2;
+    public static final int SPLIT = 3;
+    public static final int CHIPS = 4;
+    public static final int PHASE = 5;
+    public static final int OPTIONS = 6;
+    public static final int ERROR = 7;
+
+    /** Bit della maschera delle opzioni che indica che il giocatore sta giocando la mano divisa. */
+    public static final int OPTION_SPLIT_HAND = 0x80;
+
+    /** Byte del posto del dealer. */
+    public static final int DEALER_SEAT_CODE = 0xFF;
+
+    private byte[] buffer = new byte[64];
+    private int size;
+    private final byte[] header = new byte[5];
+
+    @Override
+    public void cardDealt(int seat, boolean splitHand, Card card)
+    {
+        ensureCapacity(3);
+        buffer[size++] = (byte) (splitHand ? CARD_SPLIT : CARD_MAIN);
+        buffer[size++] = seatCode(seat);
+        buffer[size++] = (byte) PackedCard.encode(card);
+    }
+
+    @Override
+    public void handSplit(int seat)
+    {
+        ensureCapacity(2);
+        buffer[size++] = SPLIT;
+        buffer[size++] = seatCode(seat);
+    }
+
+    @Override
+    public void chipsChanged(int seat, int delta)
+    {
+        ensureCapacity(7);
+        buffer[size++] = CHIPS;
+        buffer[size++] = seatCode(seat);
+        size = writeVarint(buffer, size, (delta << 1) ^ (delta >> 31));
+    }
+
+    @Override
+    public void phaseChanged(RoundEngine.Phase phase)
+    {
+        ensureCapacity(2);
+        buffer[size++] = PHASE;
+        buffer[size++] = (byte) phase.ordinal();
+    }
+
+    /**
+     * Aggiunge al frame le azioni consentite al giocatore nel turno in corso.
+     *
+     * @param engine Il motore del round.
+     */
+    public void options(RoundEngine engine)
+    {
+        int mask = 1 << PlayerAction.HIT.ordinal() | 1 << PlayerAction.STAND.ordinal();
+        if (engine.canDouble())
+        {
+            mask |= 1 << PlayerAction.DOUBLE.ordinal();
+        }
+        if (engine.canSplit())
+        {
+            mask |= 1 << PlayerAction.SPLIT.ordinal();
+        }
+        if (engine.canSurrender())
+        {
+            mask |= 1 << PlayerAction.SURRENDER.ordinal();
+        }
+        if (engine.isPlayingSplitHand())
+        {
+            mask |= OPTION_SPLIT_HAND;
+        }
+        ensureCapacity(2);
+        buffer[size++] = OPTIONS;
+        buffer[size++] = (byte) mask;
+    }
+
+    /**
+     * Aggiunge al frame un messaggio di errore.
+     *
+     * @param message Il messaggio.
+     */
+    public void error(String message)
+    {
+        byte[] text = message.getBytes(StandardCharsets.UTF_8);
+        ensureCapacity(6 + text.length);
+        buffer[size++] = ERROR;
+        size = writeVarint(buffer, size, text.length);
+        System.arraycopy(text, 0, buffer, size, text.length);
+        size += text.length;
+    }
+
+    /**
+     * @return Il numero di byte di eventi accumulati nel frame corrente.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Scarta gli eventi accumulati.
+     */
+    public void clear()
+    {
+        size = 0;
+    }
+
+    /**
+     * Scrive il frame corrente, preceduto dalla sua lunghezza, e lo svuota.
+     * Lo stream non viene svuotato: il chiamante decide quando inviare i dati.
+     *
+     * @param out Lo stream di destinazione.
+     * @throws IOException se la scrittura fallisce.
+     */
+    public void writeTo(OutputStream out) throws IOException
+    {
+        int headerLength = writeVarint(header, 0, size);
+        out.write(header, 0, headerLength);
+        out.write(buffer, 0, size);
+        size = 0;
+    }
+
+    private void ensureCapacity(int extra)
+    {
+        if (size + extra > buffer.length)
+        {
+            byte[] larger = new byte[Math.max(buffer.length * 2, size + extra)];
+            System.arraycopy(buffer, 0, larger, 0, size);
+            buffer = larger;
+        }
+    }
+
+    private static byte seatCode(int seat)
+    {
+        if (seat == DEALER_SEAT)
+        {
+            return (byte) DEALER_SEAT_CODE;
+        }
+        if (seat < 0 || seat >= DEALER_SEAT_CODE)
+        {
+            throw new IllegalArgumentException("Seat out of range: " + seat);
+        }
+        return (byte) seat;
+    }
+
+    /**
+     * Scrive un intero senza segno come varint (7 bit per byte, bit alto di continuazione).
+     *
+     * @return La posizione successiva all'ultimo byte scritto.
+     */
+    private static int writeVarint(byte[] target, int position, int value)
+    {
+        while ((value & ~0x7F) != 0)
+        {
+            target[position++] = (byte) (value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        target[position++] = (byte) value;
+        return position;
+    }
+}
@@ -0,0 +1,21 @@
+package Model;
+
+/**
+ * Eventi notificati da {@link BlackJackGame} ai listener registrati sul suo {@link GameEventBus}.
+ * Ogni evento indica quale parte del modello è cambiata: i listener leggono dal gioco solo lo stato
+ * che li riguarda. L'ordine delle costanti segue lo svolgimento del round ed è l'ordine in cui
+ * gli eventi accumulati vengono consegnati nella modalità a lotti.
+ */
+public enum GameEvent
+{
+    /** Gli AI Players hanno piazzato le loro scommesse. */
+    AI_BETS_PLACED,
+    /** Sono state distribuite le carte iniziali. */
+    CARDS_DEALT,
+    /** Gli AI Players hanno giocato le loro mani e sono stati pagati. */
+    AI_PLAYERS_TURN,
+    /** Il dealer ha giocato la sua mano. */
+    DEALER_TURN,
+    /** Sono cambiate le fiches del giocatore o degli AI Players. */
+    CHIPS_UPDATED
+}
@@ -0,0 +1,219 @@
+package Model;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * Registro dei listener di un {@link BlackJackGame}.
+ * Ogni listener si registra per un insieme di {@link GameEvent} con una delle tre modalità di consegna:
+ * <ul>
+ *     <li>sincrona: il listener viene chiamato subito, sul thread che pubblica l'evento;</li>
+ *     <li>asincrona: la chiamata viene affidata a un {@link Executor}, ad esempio
+ *     {@code SwingUtilities::invokeLater} per aggiornare la vista sul thread di Swing;</li>
+ *     <li>a lotti: gli eventi vengono accumulati e consegnati una sola volta ciascuno alla chiamata
+ *     di {@link #flush()}, nell'ordine delle costanti di {@link GameEvent}, seguiti da
+ *     {@link GameListener#onBatchDelivered()}. Se la registrazione indica un esecutore, il primo evento
+ *     accumulato vi programma una chiamata di {@link #flush()}, ad esempio una volta per frame di Swing.</li>
+ * </ul>
+ * Gli interessi di tutti i listener sono riassunti in una maschera di bit: un evento che nessuno ascolta
+ * costa un solo confronto, per cui le simulazioni senza listener non pagano nulla.
+ * <p>
+ * La registrazione può avvenire da qualsiasi thread; la pubblicazione e {@link #flush()} vanno chiamate
+ * dal thread che gioca la partita.
+ */
+public class GameEventBus
+{
+    private static final GameEvent[] EVENTS = GameEvent.values();
+
+    /**
+     * Un listener registrato con i suoi interessi e la sua modalità di consegna.
+     */
+    private static final class Subscription
+    {
+        final GameListener listener;
+        final int mask; // Un bit per ordinale di GameEvent
+        final Executor executor; // null per la consegna sincrona; per quella a lotti, dove programmare flush()
+        final boolean batched;
+        int pending; // Eventi in attesa di flush() per la consegna a lotti
+
+        Subscription(GameListener listener, int mask, Executor executor, boolean batched)
+        {
+            this.listener = listener;
+            this.mask = mask;
+            this.executor = executor;
+            this.batched = batched;
+        }
+    }
+
+    private volatile Subscription[] subscriptions = new Subscription[0]; // Copia alla scrittura
+    private volatile int interestMask; // Unione degli interessi di tutti i listener
+
+    /**
+     * Registra un listener con consegna sincrona.
+     *
+     * @param listener Il listener.
+     * @param events   Gli eventi a cui è interessato.
+     */
+    public void subscribe(GameListener listener, Set<GameEvent> events)
+    {
+        add(new Subscription(listener, maskOf(events), null, false));
+    }
+
+    /**
+     * Registra un listener con consegna asincrona.
+     *
+     * @param listener Il listener.
+     * @param events   Gli eventi a cui è interessato.
+     * @param executor L'esecutore su cui viene chiamato il listener.
+     */
+    public void subscribe(GameListener listener, Set<GameEvent> events, Executor executor)
+    {
+        if (executor == null)
+        {
+            throw new IllegalArgumentException("Executor must not be null");
+        }
+        add(new Subscription(listener, maskOf(events), executor, false));
+    }
+
+    /**
+     * Registra un listener con consegna a lotti: gli eventi vengono consegnati alla chiamata di {@link #flush()},
+     * una sola volta anche se pubblicati più volte.
+     *
+     * @param listener Il listener.
+     * @param events   Gli eventi a cui è interessato.
+     */
+    public void subscribeBatched(GameListener listener, Set<GameEvent> events)
+    {
+        add(new Subscription(listener, maskOf(events), null, true));
+    }
+
+    /**
+     * Registra un listener con consegna a lotti e programma {@link #flush()} sull'esecutore
+     * alla prima pubblicazione dopo ogni consegna.
+     *
+     * @param listener      Il listener.
+     * @param events        Gli eventi a cui è interessato.
+     * @param flushExecutor L'esecutore su cui viene chiamato {@link #flush()}; deve girare sul thread
+     *                      che gioca la partita.
+     */
+    public void subscribeBatched(GameListener listener, Set<GameEvent> events, Executor flushExecutor)
+    {
+        if (flushExecutor == null)
+        {
+            throw new IllegalArgumentException("Executor must not be null");
+        }
+        add(new Subscription(listener, maskOf(events), flushExecutor, true));
+    }
+
+    /**
+     * Rimuove tutte le registrazioni di un listener.
+     *
+     * @param listener Il listener da rimuovere.
+     */
+    public synchronized void unsubscribe(GameListener listener)
+    {
+        Subscription[] current = subscriptions;
+        Subscription[] remaining = new Subscription[current.length];
+        int count = 0;
+        int mask = 0;
+        for (Subscription subscription : current)
+        {
+            if (subscription.listener != listener)
+            {
+                remaining[count++] = subscription;
+                mask |= subscription.mask;
+            }
+        }
+        subscriptions = Arrays.copyOf(remaining, count);
+        interestMask = mask;
+    }
+
+    /**
+     * @param event L'evento.
+     * @return {@code true} se almeno un listener è interessato all'evento.
+     */
+    public boolean hasListeners(GameEvent event)
+    {
+        return (interestMask & 1 << event.ordinal()) != 0;
+    }
+
+    /**
+     * Pubblica un evento ai listener interessati.
+     *
+     * @param event L'evento.
+     */
+    public void publish(GameEvent event)
+    {
+        int bit = 1 << event.ordinal();
+        if ((interestMask & bit) == 0)
+        {
+            return;
+        }
+        for (Subscription subscription : subscriptions)
+        {
+            if ((subscription.mask & bit) == 0)
+            {
+                continue;
+            }
+            if (subscription.batched)
+            {
+                if (subscription.pending == 0 && subscription.executor != null)
+                {
+                    subscription.executor.execute(this::flush);
+                }
+                subscription.pending |= bit;
+            } else if (subscription.executor != null)
+            {
+                GameListener listener = subscription.listener;
+                subscription.executor.execute(() -> listener.onGameEvent(event));
+            } else
+            {
+                subscription.listener.onGameEvent(event);
+            }
+        }
+    }
+
+    /**
+     * Consegna ai listener a lotti gli eventi accumulati dall'ultima chiamata.
+     * Un listener senza eventi accumulati non riceve nulla, nemmeno {@link GameListener#onBatchDelivered()}.
+     */
+    public void flush()
+    {
+        for (Subscription subscription : subscriptions)
+        {
+            int pending = subscription.pending;
+            if (pending == 0)
+            {
+                continue;
+            }
+            subscription.pending = 0;
+            while (pending != 0)
+            {
+                int ordinal = Integer.numberOfTrailingZeros(pending);
+                pending &= pending - 1;
+                subscription.listener.onGameEvent(EVENTS[ordinal]);
+            }
+            subscription.listener.onBatchDelivered();
+        }
+    }
+
+    private synchronized void add(Subscription subscription)
+    {
+        Subscription[] current = subscriptions;
+        Subscription[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = subscription;
+        subscriptions = updated;
+        interestMask |= subscription.mask;
+    }
+
+    private static int maskOf(Set<GameEvent> events)
+    {
+        int mask = 0;
+        for (GameEvent event : events)
+        {
+            mask |= 1 << event.ordinal();
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,22 @@
+package Model;
+
+/**
+ * Listener degli eventi di un {@link BlackJackGame}, registrato su un {@link GameEventBus}.
+ */
+@FunctionalInterface
+public interface GameListener
+{
+    /**
+     * Notifica un evento del gioco.
+     *
+     * @param event L'evento.
+     */
+    void onGameEvent(GameEvent event);
+
+    /**
+     * Notifica la fine di una consegna a lotti, dopo l'ultimo evento consegnato da {@link GameEventBus#flush()}.
+     */
+    default void onBatchDelivered()
+    {
+    }
+}
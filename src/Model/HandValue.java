@@ -0,0 +1,98 @@
+package Model;
+
+/**
+ * Stato incrementale del punteggio di una mano di Blackjack.
+ * Mantiene il totale "duro" (Assi contati come 1) e il numero di Assi, aggiornati
+ * a ogni carta aggiunta, così che il punteggio si legga in tempo costante e senza allocazioni.
+ */
+public final class HandValue
+{
+    private int hardTotal; // Somma dei punti con gli Assi contati come 1
+    private int aceCount; // Numero di Assi nella mano
+
+    /**
+     * Aggiunge una carta al punteggio.
+     *
+     * @param card La carta aggiunta alla mano.
+     */
+    public void add(Card card)
+    {
+        add(card.getCardValueType().getValue());
+    }
+
+    /**
+     * Aggiunge i punti di una carta al punteggio; un punto solo indica un Asso.
+     *
+     * @param points I punti della carta (Asso = 1).
+     */
+    public void add(int points)
+    {
+        hardTotal += points;
+        if (points == 1)
+        {
+            aceCount++;
+        }
+    }
+
+    /**
+     * Azzera il punteggio per una nuova mano.
+     */
+    public void reset()
+    {
+        hardTotal = 0;
+        aceCount = 0;
+    }
+
+    /**
+     * @return Il punteggio con tutti gli Assi contati come 1.
+     */
+    public int hardTotal()
+    {
+        return hardTotal;
+    }
+
+    /**
+     * @return Il punteggio migliore, contando un Asso come 11 se non si sballa.
+     */
+    public int bestTotal()
+    {
+        return isSoft() ? hardTotal + 10 : hardTotal;
+    }
+
+    /**
+     * @return {@code true} se un Asso può essere contato come 11 senza sballare.
+     */
+    public boolean isSoft()
+    {
+        return aceCount > 0 && hardTotal <= 11;
+    }
+
+    /**
+     * @return {@code true} se il punteggio supera 21.
+     */
+    public boolean isBust()
+    {
+        return hardTotal > 21;
+    }
+
+    /**
+     * @return Il numero di Assi nella mano.
+     */
+    public int aceCount()
+    {
+        return aceCount;
+    }
+
+    /**
+     * Restituisce i punteggi nel formato storico di
+     * {@link BlackJackParticipant#calculateHandScore(java.util.List)}:
+     * il totale minimo e, se non supera 21, il totale massimo.
+     *
+     * @return Un array contenente i possibili punteggi della mano.
+     */
+    public int[] toScoreArray()
+    {
+        int maxScore = bestTotal();
+        return (maxScore > 21) ? new int[]{hardTotal} : new int[]{hardTotal, maxScore};
+    }
+}
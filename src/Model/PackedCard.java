@@ -0,0 +1,114 @@
+package Model;
+
+/**
+ * Rappresentazione primitiva delle carte, usata dal protocollo binario ({@link FrameEncoder}, {@link FrameDecoder}).
+ * Una carta è codificata in un singolo byte: i 4 bit bassi contengono il rango
+ * (l'ordinale di {@link Value}) e i bit successivi il seme (l'ordinale di {@link Suit}).
+ * La conversione verso {@link Card} avviene tramite tabelle precalcolate, senza allocazioni.
+ */
+public final class PackedCard
+{
+    /** Maschera per estrarre il rango dal codice della carta. */
+    public static final int RANK_MASK = 0x0F;
+
+    /** Numero di bit occupati dal rango nel codice della carta. */
+    public static final int SUIT_SHIFT = 4;
+
+    /** Numero massimo di codici distinti (2 bit di seme, 4 bit di rango). */
+    public static final int CODE_SPACE = 1 << (SUIT_SHIFT + 2);
+
+    private static final Card[] CARDS_BY_CODE = new Card[CODE_SPACE]; // Codice -> carta canonica
+    private static final byte[] CODES_BY_ORDINAL = new byte[Card.DISTINCT_CARDS]; // Ordinale -> codice
+    private static final byte[] POINTS_BY_RANK = new byte[RANK_MASK + 1]; // Rango -> punti (Asso = 1)
+
+    static
+    {
+        for (Suit suit : Suit.values())
+        {
+            for (Value value : Value.values())
+            {
+                int code = encode(suit, value);
+                Card card = Card.of(suit, value);
+                CARDS_BY_CODE[code] = card;
+                CODES_BY_ORDINAL[card.getOrdinal()] = (byte) code;
+                POINTS_BY_RANK[value.ordinal()] = (byte) value.getValue();
+            }
+        }
+    }
+
+    private PackedCard()
+    {
+    }
+
+    /**
+     * Codifica seme e valore in un intero compatto.
+     *
+     * @param suit  Il seme della carta.
+     * @param value Il valore della carta.
+     * @return Il codice della carta.
+     */
+    public static int encode(Suit suit, Value value)
+    {
+        return suit.ordinal() << SUIT_SHIFT | value.ordinal();
+    }
+
+    /**
+     * Codifica una carta del modello.
+     *
+     * @param card La carta da codificare.
+     * @return Il codice della carta.
+     */
+    public static int encode(Card card)
+    {
+        return CODES_BY_ORDINAL[card.getOrdinal()];
+    }
+
+    /**
+     * Restituisce la carta canonica corrispondente a un codice.
+     *
+     * @param code Il codice della carta.
+     * @return La carta canonica.
+     */
+    public static Card decode(int code)
+    {
+        return CARDS_BY_CODE[code];
+    }
+
+    /**
+     * @param code Il codice della carta.
+     * @return Il rango della carta (ordinale di {@link Value}).
+     */
+    public static int rank(int code)
+    {
+        return code & RANK_MASK;
+    }
+
+    /**
+     * @param code Il codice della carta.
+     * @return Il seme della carta (ordinale di {@link Suit}).
+     */
+    public static int suit(int code)
+    {
+        return code >>> SUIT_SHIFT;
+    }
+
+    /**
+     * Restituisce i punti della carta, con l'Asso che vale 1.
+     *
+     * @param code Il codice della carta.
+     * @return I punti della carta.
+     */
+    public static int points(int code)
+    {
+        return POINTS_BY_RANK[code & RANK_MASK];
+    }
+
+    /**
+     * @param code Il codice della carta.
+     * @return {@code true} se la carta è un Asso.
+     */
+    public static boolean isAce(int code)
+    {
+        return (code & RANK_MASK) == 0;
+    }
+}
@@ -1,16 +1,14 @@
 package Model;
 
 /**
- * La classe Player rappresenta il giocatore principale nel gioco di Blackjack.
- * Implementa il pattern Singleton per garantire che ci sia un solo giocatore per partita.
+ * La classe Player rappresenta il giocatore umano di una partita di Blackjack.
+ * Ogni {@link BlackJackGame} ha il proprio giocatore, così che più partite indipendenti
+ * possano essere giocate nello stesso processo, anche su thread diversi.
  * Questa classe estende {@link BasePlayer} e gestisce le statistiche del giocatore,
  * tra cui vittorie, sconfitte, pareggi e livello di gioco.
  */
 public class Player extends BasePlayer
 {
-    /** Istanza unica di Player per l'implementazione del Singleton. */
-    private static Player instance;
-
     /** Numero di vittorie necessarie per aumentare di livello. */
     private static final int WINS_TO_LEVEL_UP = 3;
 
@@ -20,14 +18,27 @@ public class Player extends BasePlayer
     private int gamesTied;
     private int winsToLevelUp;
     private int level;
+    private String nickname;
 
     /**
-     * Costruttore privato per impedire la creazione di più istanze.
+     * Costruttore che crea un giocatore senza nickname.
      * Inizializza le statistiche del giocatore.
      */
-    private Player()
+    public Player()
+    {
+        this(null);
+    }
+
+    /**
+     * Costruttore che crea un giocatore con un nickname.
+     * Inizializza le statistiche del giocatore.
+     *
+     * @param nickname Il nickname del giocatore, oppure null.
+     */
+    public Player(String nickname)
     {
         super();
+        this.nickname = nickname;
         this.gamesPlayed = 0;
         this.gamesWon = 0;
         this.gamesLost = 0;
@@ -36,18 +47,14 @@ public class Player extends BasePlayer
         this.winsToLevelUp = 0;
     }
 
-    /**
-     * Metodo per ottenere l'unica istanza del giocatore.
-     *
-     * @return L'istanza unica di {@code Player}.
-     */
-    public static Player getInstance()
+    public String getNickname()
     {
-        if (instance == null)
-        {
-            instance = new Player();
-        }
-        return instance;
+        return nickname;
+    }
+
+    public void setNickname(String nickname)
+    {
+        this.nickname = nickname;
     }
 
     // ===============================
@@ -159,19 +166,6 @@ public class Player extends BasePlayer
         this.level++;
     }
 
-    // ===============================
-    // Metodi per la gestione delle fiches
-    // ===============================
-
-
-    /**
-     * Resetta l'importo della scommessa del giocatore a 0.
-     */
-    public void resetBetAmount()
-    {
-        this.betamount = 0;
-    }
-
     // ===============================
     // Metodi per il reset del giocatore
     // ===============================
@@ -0,0 +1,10 @@
+package Model;
+
+/**
+ * Enum {@code PlayerAction} rappresenta le decisioni che un giocatore può prendere
+ * durante il proprio turno.
+ */
+public enum PlayerAction
+{
+    HIT, STAND, DOUBLE, SPLIT, SURRENDER;
+}
@@ -0,0 +1,593 @@
+package Model;
+
+import java.util.List;
+
+/**
+ * Motore "headless" di un round di Blackjack.
+ * Gioca un round completo (scommesse, distribuzione, assicurazione, turno del giocatore,
+ * turni degli AI Players, turno del dealer e pagamenti) sugli stessi oggetti di un
+ * {@link BlackJackGame}, senza notificare osservatori e senza dipendere da Swing.
+ * <p>
+ * Il round può essere giocato in un'unica chiamata sincrona con {@link #playRound(int, Strategy)}
+ * oppure un passo alla volta ({@link #beginRound(int)}, {@link #resolveInsurance(boolean)},
+ * {@link #act(PlayerAction)}) quando le decisioni arrivano dall'esterno.
+ * Un {@link TableListener} facoltativo riceve gli aggiornamenti incrementali del tavolo man mano che avvengono.
+ * Un'istanza non è thread-safe: ogni thread deve usare il proprio gioco e il proprio motore.
+ */
+public class RoundEngine
+{
+    /**
+     * Fasi di un round.
+     */
+    public enum Phase
+    {
+        BETTING, INSURANCE, PLAYER_TURN, SETTLED
+    }
+
+    /** Posto del giocatore nell'esito del round. */
+    public static final int PLAYER_SEAT = 0;
+
+    private final BlackJackGame game;
+    private final TableRules rules;
+    private final RoundResult result = new RoundResult();
+    private int aiBet; // Scommessa fissa degli AI Players, 0 per la scommessa casuale del gioco
+
+    private Phase phase = Phase.BETTING;
+    private boolean playerSeated; // true se il giocatore partecipa al round
+    private boolean playingSplitHand; // true quando il giocatore sta giocando la mano divisa
+
+    // Stato per posto: 0 è il giocatore, da 1 in poi gli AI Players
+    private int[] mainStake = new int[0];
+    private int[] splitStake = new int[0];
+    private int[] chipsBefore = new int[0];
+    private boolean[] surrendered = new boolean[0];
+    private int[] reportedChips = new int[0]; // Fiches già notificate all'ascoltatore
+
+    private TableListener listener;
+
+    /**
+     * Crea un motore che gioca i round sugli oggetti del gioco indicato.
+     *
+     * @param game Il gioco che contiene mazzo, dealer, giocatore e AI Players.
+     */
+    public RoundEngine(BlackJackGame game)
+    {
+        this.game = game;
+        this.rules = game.getRules();
+    }
+
+    /**
+     * Gioca un round completo in modo sincrono.
+     *
+     * @param playerBet La scommessa del giocatore, oppure 0 se il giocatore non partecipa.
+     * @param strategy  La strategia che decide per il giocatore (obbligatoria se {@code playerBet > 0}).
+     * @return L'esito del round, riutilizzato dal motore al round successivo.
+     */
+    public RoundResult playRound(int playerBet, Strategy strategy)
+    {
+        if (playerBet > 0 && strategy == null)
+        {
+            throw new IllegalArgumentException("A strategy is required when the player places a bet");
+        }
+        beginRound(playerBet);
+
+        Player player = game.getPlayer();
+        if (phase == Phase.INSURANCE)
+        {
+            resolveInsurance(playerSeated && strategy.takeInsurance(player, getDealerUpCard()));
+        }
+        while (phase == Phase.PLAYER_TURN)
+        {
+            act(strategy.decide(player, playingSplitHand, getDealerUpCard(), canDouble(), canSplit(), canSurrender()));
+        }
+        return result;
+    }
+
+    /**
+     * Raccoglie le scommesse e distribuisce le carte iniziali.
+     * Se la carta di taglio è uscita nel round precedente, lo shoe viene cambiato prima di distribuire.
+     * Se il giocatore non riesce a coprire la scommessa, il round prosegue senza di lui.
+     *
+     * @param playerBet La scommessa del giocatore, oppure 0 se il giocatore non partecipa.
+     */
+    public void beginRound(int playerBet)
+    {
+        if (phase != Phase.BETTING && phase != Phase.SETTLED)
+        {
+            throw new IllegalStateException("A round is already in progress");
+        }
+        Player player = game.getPlayer();
+        Dealer dealer = game.getDealer();
+        Deck deck = game.getDeck();
+        List<AiPlayer> aiPlayers = game.getAiPlayers();
+        if (deck.needsShuffle())
+        {
+            deck.newShoe();
+        }
+
+        int seats = aiPlayers.size() + 1;
+        ensureSeats(seats);
+        result.reset(seats);
+        setPhase(Phase.BETTING);
+
+        if (playerBet > 0)
+        {
+            player.clearHand(deck); // Se il giocatore non partecipa, il suo stato non viene toccato
+        }
+        dealer.clearHand(deck);
+        for (AiPlayer aiPlayer : aiPlayers)
+        {
+            aiPlayer.clearHand(deck);
+        }
+
+        // Scommesse
+        playerSeated = playerBet > 0 && placeBet(player, PLAYER_SEAT, playerBet);
+        for (int i = 0; i < aiPlayers.size(); i++)
+        {
+            AiPlayer aiPlayer = aiPlayers.get(i);
+            int maxBet = Math.max(1, aiPlayer.getChips() / 2); // Massimo 50% delle fiches
+            placeBet(aiPlayer, i + 1, aiBet > 0 ? aiBet : game.getRandom().nextInt(maxBet) + 1);
+        }
+
+        // Distribuzione, nello stesso ordine di BlackJackGame
+        if (playerSeated)
+        {
+            deal(player, PLAYER_SEAT, false);
+            deal(player, PLAYER_SEAT, false);
+        }
+        dealer.draw(deck);
+        dealer.draw(deck);
+        if (listener != null)
+        {
+            listener.cardDealt(TableListener.DEALER_SEAT, false, getDealerUpCard()); // La carta coperta resta nascosta
+        }
+        for (int i = 0; i < aiPlayers.size(); i++)
+        {
+            if (result.isSeated(i + 1))
+            {
+                deal(aiPlayers.get(i), i + 1, false);
+                deal(aiPlayers.get(i), i + 1, false);
+            }
+        }
+
+        playingSplitHand = false;
+        if (getDealerUpCard().getCardValueType() == Value.ACE)
+        {
+            setPhase(Phase.INSURANCE);
+        } else
+        {
+            startPlayerTurn();
+        }
+    }
+
+    /**
+     * Risolve l'assicurazione quando il dealer mostra un Asso.
+     * Gli AI Players la accettano una volta su tre; se il dealer ha Blackjack il round termina subito.
+     *
+     * @param playerTakesInsurance {@code true} se il giocatore piazza l'assicurazione.
+     */
+    public void resolveInsurance(boolean playerTakesInsurance)
+    {
+        requirePhase(Phase.INSURANCE);
+        Player player = game.getPlayer();
+        List<AiPlayer> aiPlayers = game.getAiPlayers();
+
+        if (playerSeated && playerTakesInsurance)
+        {
+            placeInsurance(player, PLAYER_SEAT);
+        }
+        for (int i = 0; i < aiPlayers.size(); i++)
+        {
+            if (result.isSeated(i + 1) && game.getRandom().nextInt(3) == 0)
+            {
+                placeInsurance(aiPlayers.get(i), i + 1);
+            }
+        }
+
+        boolean dealerHasBlackJack = game.getDealer().hasBlackJack();
+        if (dealerHasBlackJack)
+        {
+            player.creditChips(2 * player.getInsuranceBet());
+            for (AiPlayer aiPlayer : aiPlayers)
+            {
+                aiPlayer.creditChips(2 * aiPlayer.getInsuranceBet());
+            }
+        }
+        game.resetAllInsuranceBets();
+        if (playerSeated)
+        {
+            reportChips(player, PLAYER_SEAT);
+        }
+        for (int i = 0; i < aiPlayers.size(); i++)
+        {
+            if (result.isSeated(i + 1))
+            {
+                reportChips(aiPlayers.get(i), i + 1);
+            }
+        }
+
+        if (dealerHasBlackJack)
+        {
+            settle();
+        } else
+        {
+            startPlayerTurn();
+        }
+    }
+
+    /**
+     * Applica una decisione del giocatore alla mano corrente.
+     * Un raddoppio, una divisione o una resa non consentiti vengono trattati come carta.
+     *
+     * @param action L'azione scelta dal giocatore.
+     */
+    public void act(PlayerAction action)
+    {
+        requirePhase(Phase.PLAYER_TURN);
+        Player player = game.getPlayer();
+        if (playAction(player, PLAYER_SEAT, playingSplitHand, action))
+        {
+            if (!playingSplitHand && !player.getSplitHand().isEmpty() && player.getSplitHandValue().bestTotal() < 21)
+            {
+                playingSplitHand = true;
+            } else
+            {
+                finishRound();
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} se il giocatore può raddoppiare la mano corrente.
+     */
+    public boolean canDouble()
+    {
+        return phase == Phase.PLAYER_TURN && canDouble(game.getPlayer(), PLAYER_SEAT, playingSplitHand);
+    }
+
+    /**
+     * @return {@code true} se il giocatore può arrendersi sulla mano corrente.
+     */
+    public boolean canSurrender()
+    {
+        return phase == Phase.PLAYER_TURN && canSurrender(game.getPlayer(), PLAYER_SEAT, playingSplitHand);
+    }
+
+    /**
+     * @return {@code true} se il giocatore può dividere la mano corrente.
+     */
+    public boolean canSplit()
+    {
+        return phase == Phase.PLAYER_TURN && canSplit(game.getPlayer(), PLAYER_SEAT, playingSplitHand);
+    }
+
+    /**
+     * Imposta l'ascoltatore degli aggiornamenti incrementali del tavolo.
+     *
+     * @param listener L'ascoltatore, oppure {@code null} per non notificare nulla.
+     */
+    public void setListener(TableListener listener)
+    {
+        this.listener = listener;
+    }
+
+    /**
+     * Imposta una scommessa fissa per tutti gli AI Players, utile nelle simulazioni.
+     *
+     * @param aiBet L'importo fisso, oppure 0 per la scommessa casuale fino al 50% delle fiches.
+     */
+    public void setAiBet(int aiBet)
+    {
+        this.aiBet = aiBet;
+    }
+
+    public Phase getPhase()
+    {
+        return phase;
+    }
+
+    public boolean isPlayingSplitHand()
+    {
+        return playingSplitHand;
+    }
+
+    public RoundResult getResult()
+    {
+        return result;
+    }
+
+    public BlackJackGame getGame()
+    {
+        return game;
+    }
+
+    /**
+     * @return La carta scoperta del dealer.
+     */
+    public Card getDealerUpCard()
+    {
+        return game.getDealer().getHand().get(0);
+    }
+
+    private void ensureSeats(int seats)
+    {
+        if (mainStake.length < seats)
+        {
+            mainStake = new int[seats];
+            splitStake = new int[seats];
+            chipsBefore = new int[seats];
+            surrendered = new boolean[seats];
+            reportedChips = new int[seats];
+        }
+    }
+
+    private boolean placeBet(BasePlayer player, int seat, int amount)
+    {
+        chipsBefore[seat] = player.getChips();
+        reportedChips[seat] = chipsBefore[seat];
+        splitStake[seat] = 0;
+        surrendered[seat] = false;
+        if (!player.betChips(amount))
+        {
+            mainStake[seat] = 0;
+            return false;
+        }
+        mainStake[seat] = amount;
+        result.seat(seat);
+        result.addWager(seat, amount);
+        reportChips(player, seat);
+        return true;
+    }
+
+    private void deal(BasePlayer player, int seat, boolean isSplitHand)
+    {
+        player.draw(game.getDeck(), isSplitHand);
+        if (listener != null)
+        {
+            List<Card> hand = isSplitHand ? player.getSplitHand() : player.getHand();
+            listener.cardDealt(seat, isSplitHand, hand.get(hand.size() - 1));
+        }
+    }
+
+    private void reportChips(BasePlayer player, int seat)
+    {
+        int chips = player.getChips();
+        if (listener != null && chips != reportedChips[seat])
+        {
+            listener.chipsChanged(seat, chips - reportedChips[seat]);
+        }
+        reportedChips[seat] = chips;
+    }
+
+    private void setPhase(Phase phase)
+    {
+        this.phase = phase;
+        if (listener != null)
+        {
+            listener.phaseChanged(phase);
+        }
+    }
+
+    private void placeInsurance(BasePlayer player, int seat)
+    {
+        int insuranceBet = mainStake[seat] / 2;
+        if (insuranceBet > 0 && player.getChips() >= insuranceBet)
+        {
+            player.placeInsuranceBet(insuranceBet);
+            result.addWager(seat, insuranceBet);
+        }
+    }
+
+    private void startPlayerTurn()
+    {
+        if (playerSeated && !game.getPlayer().hasBlackJack())
+        {
+            setPhase(Phase.PLAYER_TURN);
+        } else
+        {
+            finishRound();
+        }
+    }
+
+    private boolean canDouble(BasePlayer player, int seat, boolean isSplitHand)
+    {
+        List<Card> hand = isSplitHand ? player.getSplitHand() : player.getHand();
+        int stake = isSplitHand ? splitStake[seat] : mainStake[seat];
+        return hand.size() == 2 && (rules.isDoubleAfterSplit() || player.getSplitHand().isEmpty())
+                && player.getChips() >= stake;
+    }
+
+    private boolean canSplit(BasePlayer player, int seat, boolean isSplitHand)
+    {
+        return rules.isSplitAllowed() && !isSplitHand && player.getSplitHand().isEmpty() && player.canSplit()
+                && player.getChips() >= mainStake[seat];
+    }
+
+    private boolean canSurrender(BasePlayer player, int seat, boolean isSplitHand)
+    {
+        return rules.isLateSurrender() && !isSplitHand && player.getSplitHand().isEmpty()
+                && player.getHand().size() == 2;
+    }
+
+    /**
+     * Esegue un'azione su una mano.
+     *
+     * @return {@code true} se la mano è conclusa.
+     */
+    private boolean playAction(BasePlayer player, int seat, boolean isSplitHand, PlayerAction action)
+    {
+        HandValue value = isSplitHand ? player.getSplitHandValue() : player.getHandValue();
+        switch (action)
+        {
+            case STAND:
+                return true;
+            case SURRENDER:
+                if (canSurrender(player, seat, isSplitHand))
+                {
+                    surrendered[seat] = true; // Metà della scommessa viene restituita alla liquidazione
+                    return true;
+                }
+                break;
+            case DOUBLE:
+                if (canDouble(player, seat, isSplitHand))
+                {
+                    int stake = isSplitHand ? splitStake[seat] : mainStake[seat];
+                    player.betChips(stake);
+                    result.addWager(seat, stake);
+                    if (isSplitHand)
+                    {
+                        splitStake[seat] += stake;
+                    } else
+                    {
+                        mainStake[seat] += stake;
+                    }
+                    reportChips(player, seat);
+                    deal(player, seat, isSplitHand);
+                    return true;
+                }
+                break;
+            case SPLIT:
+                if (canSplit(player, seat, isSplitHand))
+                {
+                    player.betChips(mainStake[seat]);
+                    splitStake[seat] = mainStake[seat];
+                    result.addWager(seat, mainStake[seat]);
+                    player.splitMainHand();
+                    reportChips(player, seat);
+                    if (listener != null)
+                    {
+                        listener.handSplit(seat);
+                    }
+                    deal(player, seat, false);
+                    deal(player, seat, true);
+                    return value.bestTotal() >= 21;
+                }
+                break;
+            default:
+                break;
+        }
+        deal(player, seat, isSplitHand);
+        return value.bestTotal() >= 21;
+    }
+
+    private void playAiPlayer(AiPlayer aiPlayer, int seat)
+    {
+        if (aiPlayer.hasBlackJack())
+        {
+            return;
+        }
+        Strategy strategy = aiPlayer.getStrategy();
+        Card upCard = getDealerUpCard();
+        boolean done = false;
+        while (!done)
+        {
+            done = playAction(aiPlayer, seat, false, strategy.decide(aiPlayer, false, upCard,
+                    canDouble(aiPlayer, seat, false), canSplit(aiPlayer, seat, false),
+                    canSurrender(aiPlayer, seat, false)));
+        }
+        if (!aiPlayer.getSplitHand().isEmpty())
+        {
+            done = aiPlayer.getSplitHandValue().bestTotal() >= 21;
+            while (!done)
+            {
+                done = playAction(aiPlayer, seat, true, strategy.decide(aiPlayer, true, upCard,
+                        canDouble(aiPlayer, seat, true), false, false));
+            }
+        }
+    }
+
+    private void finishRound()
+    {
+        List<AiPlayer> aiPlayers = game.getAiPlayers();
+        for (int i = 0; i < aiPlayers.size(); i++)
+        {
+            if (result.isSeated(i + 1))
+            {
+                playAiPlayer(aiPlayers.get(i), i + 1);
+            }
+        }
+        game.getDealer().playTurn(game.getDeck(), rules);
+        settle();
+    }
+
+    private void settle()
+    {
+        Dealer dealer = game.getDealer();
+        boolean dealerHasBlackJack = dealer.hasBlackJack();
+        int dealerTotal = dealer.bestTotal();
+        result.setDealer(dealerTotal, dealerHasBlackJack);
+        if (listener != null)
+        {
+            // La carta coperta e le carte pescate dal dealer vengono rivelate solo ora
+            List<Card> dealerHand = dealer.getHand();
+            for (int i = 1; i < dealerHand.size(); i++)
+            {
+                listener.cardDealt(TableListener.DEALER_SEAT, false, dealerHand.get(i));
+            }
+        }
+
+        if (playerSeated)
+        {
+            settleSeat(game.getPlayer(), PLAYER_SEAT, dealerHasBlackJack, dealerTotal);
+        }
+        List<AiPlayer> aiPlayers = game.getAiPlayers();
+        for (int i = 0; i < aiPlayers.size(); i++)
+        {
+            if (result.isSeated(i + 1))
+            {
+                settleSeat(aiPlayers.get(i), i + 1, dealerHasBlackJack, dealerTotal);
+            }
+        }
+        setPhase(Phase.SETTLED);
+    }
+
+    private void settleSeat(BasePlayer player, int seat, boolean dealerHasBlackJack, int dealerTotal)
+    {
+        if (surrendered[seat])
+        {
+            player.creditChips(mainStake[seat] / 2);
+            result.addHand(seat, false);
+        } else if (player.getSplitHand().isEmpty() && player.hasBlackJack())
+        {
+            // Il Blackjack viene pagato secondo le regole del tavolo, il pareggio restituisce la scommessa
+            int stake = mainStake[seat];
+            player.creditChips(dealerHasBlackJack ? stake : stake + rules.blackjackWin(stake));
+            result.addHand(seat, false);
+        } else
+        {
+            settleHand(player, seat, player.getHandValue(), mainStake[seat], dealerTotal);
+            if (!player.getSplitHand().isEmpty())
+            {
+                settleHand(player, seat, player.getSplitHandValue(), splitStake[seat], dealerTotal);
+            }
+        }
+        player.resetBetAmount();
+        result.setNet(seat, player.getChips() - chipsBefore[seat]);
+        reportChips(player, seat);
+    }
+
+    private void settleHand(BasePlayer player, int seat, HandValue value, int stake, int dealerTotal)
+    {
+        int total = value.bestTotal();
+        result.addHand(seat, value.isBust());
+        if (value.isBust())
+        {
+            return;
+        }
+        if (dealerTotal > 21 || total > dealerTotal)
+        {
+            player.creditChips(2 * stake);
+        } else if (total == dealerTotal)
+        {
+            player.creditChips(stake);
+        }
+    }
+
+    private void requirePhase(Phase expected)
+    {
+        if (phase != expected)
+        {
+            throw new IllegalStateException("Expected phase " + expected + " but was " + phase);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package Model;
+
+import java.util.Arrays;
+
+/**
+ * Esito di un round giocato dal {@link RoundEngine}.
+ * I posti sono numerati con 0 per il giocatore e da 1 in poi per gli AI Players.
+ * L'oggetto viene riutilizzato dal motore a ogni round: chi deve conservarne i valori
+ * li deve copiare prima di giocare il round successivo.
+ */
+public final class RoundResult
+{
+    private int seatCount;
+    private boolean[] seated = new boolean[0]; // Posti che hanno partecipato al round
+    private int[] net = new int[0]; // Fiches vinte (positive) o perse (negative) per posto
+    private int[] wagered = new int[0]; // Fiches puntate per posto, inclusi raddoppi, split e assicurazione
+    private int[] hands = new int[0]; // Mani giocate per posto
+    private int[] busts = new int[0]; // Mani sballate per posto
+    private int dealerTotal;
+    private boolean dealerBust;
+    private boolean dealerBlackJack;
+
+    /**
+     * Prepara l'esito per un nuovo round.
+     *
+     * @param seatCount Numero di posti al tavolo.
+     */
+    void reset(int seatCount)
+    {
+        if (seated.length < seatCount)
+        {
+            seated = new boolean[seatCount];
+            net = new int[seatCount];
+            wagered = new int[seatCount];
+            hands = new int[seatCount];
+            busts = new int[seatCount];
+        }
+        this.seatCount = seatCount;
+        Arrays.fill(seated, false);
+        Arrays.fill(net, 0);
+        Arrays.fill(wagered, 0);
+        Arrays.fill(hands, 0);
+        Arrays.fill(busts, 0);
+        dealerTotal = 0;
+        dealerBust = false;
+        dealerBlackJack = false;
+    }
+
+    void seat(int seat)
+    {
+        seated[seat] = true;
+    }
+
+    void addWager(int seat, int amount)
+    {
+        wagered[seat] += amount;
+    }
+
+    void addHand(int seat, boolean busted)
+    {
+        hands[seat]++;
+        if (busted)
+        {
+            busts[seat]++;
+        }
+    }
+
+    void setNet(int seat, int amount)
+    {
+        net[seat] = amount;
+    }
+
+    void setDealer(int total, boolean blackJack)
+    {
+        dealerTotal = total;
+        dealerBust = total > 21;
+        dealerBlackJack = blackJack;
+    }
+
+    public int getSeatCount()
+    {
+        return seatCount;
+    }
+
+    public boolean isSeated(int seat)
+    {
+        return seated[seat];
+    }
+
+    public int getNet(int seat)
+    {
+        return net[seat];
+    }
+
+    public int getWagered(int seat)
+    {
+        return wagered[seat];
+    }
+
+    public int getHands(int seat)
+    {
+        return hands[seat];
+    }
+
+    public int getBusts(int seat)
+    {
+        return busts[seat];
+    }
+
+    public int getDealerTotal()
+    {
+        return dealerTotal;
+    }
+
+    public boolean isDealerBust()
+    {
+        return dealerBust;
+    }
+
+    public boolean isDealerBlackJack()
+    {
+        return dealerBlackJack;
+    }
+}
@@ -0,0 +1,133 @@
+package Model;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.random.RandomGenerator;
+
+/**
+ * Piccola riserva di shoe mescolati in anticipo su un thread in background.
+ * Il {@link Deck} prende uno shoe pronto al cambio di shoe e restituisce quello esaurito,
+ * che viene riempito e rimescolato per un uso successivo senza nuove allocazioni.
+ * <p>
+ * Ogni shoe usa un generatore ottenuto con {@code split()} sul thread del chiamante, nell'ordine
+ * delle richieste: a parità di seme la sequenza degli shoe è sempre la stessa, indipendentemente
+ * da quando il thread in background li mescola. Se lo shoe richiesto non è ancora stato preparato,
+ * viene mescolato direttamente dal thread chiamante.
+ */
+public class ShoePool implements AutoCloseable
+{
+    private final int numDecks;
+    private final Card[] template; // Shoe ordinato da copiare prima di ogni mescolamento
+    private final RandomGenerator.SplittableGenerator random;
+    private final ExecutorService executor;
+    private final ArrayDeque<FutureTask<Card[]>> ready = new ArrayDeque<>();
+
+    /**
+     * Crea la riserva e avvia la preparazione degli shoe.
+     *
+     * @param numDecks Il numero di mazzi di ogni shoe (tra 4 e 8).
+     * @param random   Il generatore da cui derivano i mescolamenti.
+     * @param shoes    Il numero di shoe tenuti pronti (almeno 1).
+     * @throws IllegalArgumentException se un parametro è fuori dall'intervallo consentito.
+     */
+    public ShoePool(int numDecks, RandomGenerator.SplittableGenerator random, int shoes)
+    {
+        if (numDecks < 4 || numDecks > 8)
+        {
+            throw new IllegalArgumentException("Number of decks must be between 4 and 8");
+        }
+        if (shoes < 1)
+        {
+            throw new IllegalArgumentException("Shoe pool must hold at least one shoe");
+        }
+        this.numDecks = numDecks;
+        this.template = Deck.composeShoe(numDecks);
+        this.random = random;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "shoe-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < shoes; i++)
+        {
+            prepare(null);
+        }
+    }
+
+    /**
+     * Restituisce il prossimo shoe mescolato e mette in preparazione quello successivo.
+     *
+     * @param used Lo shoe esaurito da riutilizzare, oppure null.
+     * @return Uno shoe completo e mescolato.
+     */
+    public Card[] take(Card[] used)
+    {
+        FutureTask<Card[]> next;
+        synchronized (ready)
+        {
+            next = ready.poll();
+        }
+        next.run(); // Se il thread in background non l'ha ancora iniziato, lo mescola il chiamante
+        prepare(used);
+
+        boolean interrupted = false;
+        try
+        {
+            while (true)
+            {
+                try
+                {
+                    return next.get();
+                } catch (InterruptedException e)
+                {
+                    interrupted = true;
+                }
+            }
+        } catch (ExecutionException e)
+        {
+            throw new IllegalStateException("Shoe preparation failed", e.getCause());
+        } finally
+        {
+            if (interrupted)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public int getNumDecks()
+    {
+        return numDecks;
+    }
+
+    /**
+     * Ferma il thread in background.
+     */
+    @Override
+    public void close()
+    {
+        executor.shutdownNow();
+    }
+
+    private void prepare(Card[] used)
+    {
+        RandomGenerator shoeRandom = random.split();
+        Card[] shoe = used != null && used.length == template.length ? used : new Card[template.length];
+        FutureTask<Card[]> task = new FutureTask<>(() -> {
+            System.arraycopy(template, 0, shoe, 0, template.length);
+            Deck.shuffle(shoe, 0, shoe.length, shoeRandom);
+            return shoe;
+        });
+        synchronized (ready)
+        {
+            ready.add(task);
+        }
+        if (!executor.isShutdown())
+        {
+            executor.execute(task);
+        }
+    }
+}
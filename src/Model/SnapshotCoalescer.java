@@ -0,0 +1,78 @@
+package Model;
+
+import java.util.EnumSet;
+import java.util.concurrent.Executor;
+
+/**
+ * Strato di aggregazione tra il modello e la vista.
+ * Si registra sugli eventi di un {@link BlackJackGame} con la consegna a lotti di {@link GameEventBus}:
+ * il primo evento programma {@link GameEventBus#flush()} sull'esecutore del frame e, alla consegna,
+ * il listener riceve un'unica {@link TableSnapshot} con lo stato del tavolo e gli eventi del lotto.
+ * <p>
+ * Con {@code SwingUtilities::invokeLater} come esecutore, tutti gli eventi prodotti da un passo logico
+ * (ad esempio un pulsante premuto) danno luogo a un solo aggiornamento della vista dopo la fine del passo.
+ * L'esecutore deve girare sul thread che gioca la partita, perché la fotografia legge il modello.
+ */
+public class SnapshotCoalescer implements GameListener, AutoCloseable
+{
+    /**
+     * Destinatario delle fotografie.
+     */
+    @FunctionalInterface
+    public interface Listener
+    {
+        /**
+         * @param snapshot La fotografia del tavolo con gli eventi accumulati.
+         */
+        void onSnapshot(TableSnapshot snapshot);
+    }
+
+    private final BlackJackGame game;
+    private final Listener listener;
+    private int changes; // Eventi del lotto in consegna, un bit per ordinale di GameEvent
+
+    /**
+     * Crea lo strato di aggregazione e lo registra sugli eventi del gioco.
+     *
+     * @param game          Il gioco da osservare.
+     * @param frameExecutor L'esecutore su cui avviene la consegna, una volta per frame.
+     * @param listener      Il destinatario delle fotografie.
+     */
+    public SnapshotCoalescer(BlackJackGame game, Executor frameExecutor, Listener listener)
+    {
+        this.game = game;
+        this.listener = listener;
+        game.getEvents().subscribeBatched(this, EnumSet.allOf(GameEvent.class), frameExecutor);
+    }
+
+    @Override
+    public void onGameEvent(GameEvent event)
+    {
+        changes |= 1 << event.ordinal();
+    }
+
+    @Override
+    public void onBatchDelivered()
+    {
+        int delivered = changes;
+        changes = 0;
+        listener.onSnapshot(TableSnapshot.of(game, delivered));
+    }
+
+    /**
+     * Consegna subito gli eventi accumulati, senza attendere il frame.
+     */
+    public void deliver()
+    {
+        game.getEvents().flush();
+    }
+
+    /**
+     * Cancella la registrazione sugli eventi del gioco.
+     */
+    @Override
+    public void close()
+    {
+        game.getEvents().unsubscribe(this);
+    }
+}
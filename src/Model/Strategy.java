@@ -0,0 +1,35 @@
+package Model;
+
+/**
+ * Strategia di gioco di un posto al tavolo, usata dal {@link RoundEngine} per
+ * chiedere le decisioni senza passare dall'interfaccia grafica.
+ */
+public interface Strategy
+{
+    /**
+     * Decide l'azione da eseguire sulla mano indicata.
+     * Se l'azione scelta non è consentita, il motore la tratta come {@link PlayerAction#HIT}.
+     *
+     * @param player       Il giocatore che deve decidere.
+     * @param isSplitHand  {@code true} se si sta giocando la mano divisa.
+     * @param dealerUpCard La carta scoperta del dealer.
+     * @param canDouble    {@code true} se il raddoppio è consentito.
+     * @param canSplit     {@code true} se la divisione è consentita.
+     * @param canSurrender {@code true} se la resa è consentita.
+     * @return L'azione scelta.
+     */
+    PlayerAction decide(BasePlayer player, boolean isSplitHand, Card dealerUpCard,
+                        boolean canDouble, boolean canSplit, boolean canSurrender);
+
+    /**
+     * Decide se accettare l'assicurazione quando il dealer mostra un Asso.
+     *
+     * @param player       Il giocatore a cui viene offerta l'assicurazione.
+     * @param dealerUpCard La carta scoperta del dealer.
+     * @return {@code true} per piazzare l'assicurazione.
+     */
+    default boolean takeInsurance(BasePlayer player, Card dealerUpCard)
+    {
+        return false;
+    }
+}
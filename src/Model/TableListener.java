@@ -0,0 +1,47 @@
+package Model;
+
+/**
+ * Ascoltatore degli aggiornamenti incrementali di un tavolo prodotti dal {@link RoundEngine}.
+ * Ogni evento descrive solo ciò che è cambiato: la carta appena distribuita, la divisione di una mano,
+ * la variazione delle fiches di un posto o il cambio di fase del round.
+ * <p>
+ * I posti seguono la numerazione di {@link RoundResult}: 0 è il giocatore, da 1 in poi gli AI Players
+ * e {@link #DEALER_SEAT} il dealer. La carta coperta del dealer viene notificata solo alla fine del round.
+ */
+public interface TableListener
+{
+    /** Posto del dealer negli eventi. */
+    int DEALER_SEAT = -1;
+
+    /**
+     * Una carta è stata aggiunta a una mano.
+     *
+     * @param seat      Il posto che riceve la carta.
+     * @param splitHand {@code true} se la carta va nella mano divisa.
+     * @param card      La carta distribuita.
+     */
+    void cardDealt(int seat, boolean splitHand, Card card);
+
+    /**
+     * La mano principale di un posto è stata divisa: la seconda carta passa nella mano divisa.
+     *
+     * @param seat Il posto che ha diviso.
+     */
+    void handSplit(int seat);
+
+    /**
+     * Le fiches di un posto sono cambiate.
+     *
+     * @param seat  Il posto.
+     * @param delta La variazione rispetto all'ultimo aggiornamento (negativa per una scommessa).
+     */
+    void chipsChanged(int seat, int delta);
+
+    /**
+     * Il round è passato a una nuova fase. {@link RoundEngine.Phase#BETTING} segnala l'inizio di un
+     * nuovo round: le mani del round precedente vanno svuotate.
+     *
+     * @param phase La nuova fase.
+     */
+    void phaseChanged(RoundEngine.Phase phase);
+}
@@ -0,0 +1,167 @@
+package Model;
+
+/**
+ * Regole del tavolo, immutabili e condivisibili tra thread.
+ * Raccoglie le varianti che influenzano il gioco: il dealer che pesca sul 17 morbido,
+ * il raddoppio dopo la divisione, il numero massimo di mani dopo la divisione,
+ * la resa tardiva, il pagamento del Blackjack e il numero di mazzi.
+ * <p>
+ * Al momento della costruzione le regole vengono tradotte in valori pronti all'uso
+ * (ad esempio il punteggio a cui il dealer si ferma su una mano morbida), così che
+ * nei cicli di gioco non servano confronti aggiuntivi.
+ */
+public final class TableRules
+{
+    /**
+     * Pagamento del Blackjack naturale, espresso come vincita per unità di scommessa.
+     */
+    public enum Payout
+    {
+        EVEN_MONEY(1, 1),
+        SIX_TO_FIVE(6, 5),
+        THREE_TO_TWO(3, 2);
+
+        private final int numerator;
+        private final int denominator;
+
+        Payout(int numerator, int denominator)
+        {
+            this.numerator = numerator;
+            this.denominator = denominator;
+        }
+
+        @Override
+        public String toString()
+        {
+            return numerator + ":" + denominator;
+        }
+    }
+
+    /**
+     * Regole storiche del gioco: il dealer sta su tutti i 17, niente raddoppio dopo la divisione,
+     * una sola divisione, niente resa, Blackjack pagato alla pari, sei mazzi.
+     */
+    public static final TableRules DEFAULT = new TableRules(false, false, 2, false, Payout.EVEN_MONEY, 6);
+
+    private final boolean dealerHitsSoft17;
+    private final boolean doubleAfterSplit;
+    private final int maxSplitHands;
+    private final boolean lateSurrender;
+    private final Payout payout;
+    private final int numDecks;
+
+    // Valori precalcolati
+    private final int softStandTotal; // Punteggio minimo a cui il dealer si ferma con una mano morbida
+    private final boolean splitAllowed;
+
+    /**
+     * @param dealerHitsSoft17 {@code true} se il dealer pesca sul 17 morbido (H17).
+     * @param doubleAfterSplit {@code true} se è consentito raddoppiare dopo la divisione (DAS).
+     * @param maxSplitHands    Numero massimo di mani dopo le divisioni: 1 (divisione vietata) o 2.
+     * @param lateSurrender    {@code true} se è consentita la resa tardiva.
+     * @param payout           Il pagamento del Blackjack naturale.
+     * @param numDecks         Il numero di mazzi nello shoe (tra 4 e 8).
+     * @throws IllegalArgumentException se un parametro è fuori dall'intervallo consentito.
+     */
+    public TableRules(boolean dealerHitsSoft17, boolean doubleAfterSplit, int maxSplitHands,
+                      boolean lateSurrender, Payout payout, int numDecks)
+    {
+        if (maxSplitHands < 1 || maxSplitHands > 2)
+        {
+            throw new IllegalArgumentException("Max split hands must be 1 or 2");
+        }
+        if (numDecks < 4 || numDecks > 8)
+        {
+            throw new IllegalArgumentException("Number of decks must be between 4 and 8");
+        }
+        if (payout == null)
+        {
+            throw new IllegalArgumentException("Payout must not be null");
+        }
+        this.dealerHitsSoft17 = dealerHitsSoft17;
+        this.doubleAfterSplit = doubleAfterSplit;
+        this.maxSplitHands = maxSplitHands;
+        this.lateSurrender = lateSurrender;
+        this.payout = payout;
+        this.numDecks = numDecks;
+
+        softStandTotal = dealerHitsSoft17 ? 18 : 17;
+        splitAllowed = maxSplitHands > 1;
+    }
+
+    /**
+     * Restituisce le stesse regole con un diverso numero di mazzi.
+     *
+     * @param numDecks Il numero di mazzi (tra 4 e 8).
+     * @return Le nuove regole.
+     */
+    public TableRules withNumDecks(int numDecks)
+    {
+        return new TableRules(dealerHitsSoft17, doubleAfterSplit, maxSplitHands, lateSurrender, payout, numDecks);
+    }
+
+    /**
+     * Restituisce il punteggio minimo a cui il dealer si ferma.
+     *
+     * @param soft {@code true} se la mano del dealer è morbida.
+     * @return 17, oppure 18 per una mano morbida con la regola H17.
+     */
+    public int dealerStandTotal(boolean soft)
+    {
+        return soft ? softStandTotal : 17;
+    }
+
+    /**
+     * Calcola la vincita di un Blackjack naturale, arrotondata per difetto a fiches intere.
+     *
+     * @param stake La scommessa.
+     * @return La vincita, esclusa la restituzione della scommessa.
+     */
+    public int blackjackWin(int stake)
+    {
+        return stake * payout.numerator / payout.denominator;
+    }
+
+    public boolean isDealerHitsSoft17()
+    {
+        return dealerHitsSoft17;
+    }
+
+    public boolean isDoubleAfterSplit()
+    {
+        return doubleAfterSplit;
+    }
+
+    public int getMaxSplitHands()
+    {
+        return maxSplitHands;
+    }
+
+    public boolean isSplitAllowed()
+    {
+        return splitAllowed;
+    }
+
+    public boolean isLateSurrender()
+    {
+        return lateSurrender;
+    }
+
+    public Payout getPayout()
+    {
+        return payout;
+    }
+
+    public int getNumDecks()
+    {
+        return numDecks;
+    }
+
+    @Override
+    public String toString()
+    {
+        return (dealerHitsSoft17 ? "H17" : "S17") + (doubleAfterSplit ? ", DAS" : "")
+                + (splitAllowed ? "" : ", niente split") + (lateSurrender ? ", resa" : "")
+                + ", Blackjack " + payout + ", " + numDecks + " mazzi";
+    }
+}
@@ -0,0 +1,115 @@
+package Model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Fotografia immutabile dello stato visibile di un tavolo, consegnata da {@link SnapshotCoalescer}.
+ * Riunisce in un solo oggetto tutto ciò che la vista mostra, insieme all'insieme degli eventi
+ * avvenuti dalla fotografia precedente, così che la vista possa aggiornare solo le parti cambiate.
+ * Le mani sono copie: la fotografia può essere letta anche mentre il gioco prosegue.
+ */
+public final class TableSnapshot
+{
+    private final int changes; // Un bit per ordinale di GameEvent
+    private final List<Card> playerHand;
+    private final int[] playerScores;
+    private final int playerChips;
+    private final List<Card> dealerHand;
+    private final List<List<Card>> aiHands;
+    private final int[][] aiScores;
+    private final int[] aiChips;
+    private final int[] aiBets;
+
+    private TableSnapshot(BlackJackGame game, int changes)
+    {
+        this.changes = changes;
+        Player player = game.getPlayer();
+        playerHand = List.copyOf(player.getHand());
+        playerScores = player.calculateScore(false);
+        playerChips = player.getChips();
+        dealerHand = List.copyOf(game.getDealer().getHand());
+
+        List<AiPlayer> aiPlayers = game.getAiPlayers();
+        List<List<Card>> hands = new ArrayList<>(aiPlayers.size());
+        aiScores = new int[aiPlayers.size()][];
+        aiChips = new int[aiPlayers.size()];
+        aiBets = new int[aiPlayers.size()];
+        for (int i = 0; i < aiPlayers.size(); i++)
+        {
+            AiPlayer aiPlayer = aiPlayers.get(i);
+            hands.add(List.copyOf(aiPlayer.getHand()));
+            aiScores[i] = aiPlayer.calculateScore(false);
+            aiChips[i] = aiPlayer.getChips();
+            aiBets[i] = aiPlayer.getBetAmount();
+        }
+        aiHands = Collections.unmodifiableList(hands);
+    }
+
+    /**
+     * Fotografa lo stato attuale del gioco.
+     *
+     * @param game    Il gioco.
+     * @param changes Gli eventi avvenuti dalla fotografia precedente, un bit per ordinale di {@link GameEvent}.
+     * @return La fotografia.
+     */
+    static TableSnapshot of(BlackJackGame game, int changes)
+    {
+        return new TableSnapshot(game, changes);
+    }
+
+    /**
+     * @param event L'evento.
+     * @return {@code true} se l'evento è avvenuto dalla fotografia precedente.
+     */
+    public boolean hasChanged(GameEvent event)
+    {
+        return (changes & 1 << event.ordinal()) != 0;
+    }
+
+    public List<Card> getPlayerHand()
+    {
+        return playerHand;
+    }
+
+    public int[] getPlayerScores()
+    {
+        return playerScores.clone();
+    }
+
+    public int getPlayerChips()
+    {
+        return playerChips;
+    }
+
+    public List<Card> getDealerHand()
+    {
+        return dealerHand;
+    }
+
+    public int getNumAiPlayers()
+    {
+        return aiChips.length;
+    }
+
+    public List<Card> getAiHand(int index)
+    {
+        return aiHands.get(index);
+    }
+
+    public int[] getAiScores(int index)
+    {
+        return aiScores[index].clone();
+    }
+
+    public int[] getAiChips()
+    {
+        return aiChips.clone();
+    }
+
+    public int[] getAiBets()
+    {
+        return aiBets.clone();
+    }
+}
@@ -0,0 +1,151 @@
+package Server;
+
+import Model.TableRules;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Server di gioco multi-tavolo.
+ * Accetta i giocatori su un socket TCP e a ogni connessione assegna un tavolo proprio
+ * ({@link Model.BlackJackGame} con il suo giocatore e gli eventuali AI Players),
+ * servito da una {@link TableSession} su un thread virtuale: migliaia di giocatori
+ * possono essere serviti dallo stesso processo senza un thread di sistema ciascuno.
+ * <p>
+ * Esempio: {@code java JBLackJack --server --port=7777 --ai=2 --chips=1000}
+ */
+public class GameServer implements AutoCloseable
+{
+    /** Porta predefinita del server. */
+    public static final int DEFAULT_PORT = 7777;
+
+    private static final int BACKLOG = 4096;
+
+    private final TableRules rules;
+    private final int numAiPlayers;
+    private final int startingChips;
+    private final ServerSocket serverSocket;
+    private final ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor();
+    private Thread acceptor;
+
+    /**
+     * Crea il server e apre il socket sull'interfaccia di loopback.
+     *
+     * @param port          La porta su cui ascoltare, oppure 0 per una porta libera qualsiasi.
+     * @param rules         Le regole dei tavoli.
+     * @param numAiPlayers  Il numero di AI Players seduti a ogni tavolo.
+     * @param startingChips Le fiches iniziali di ogni giocatore.
+     * @throws IOException se il socket non può essere aperto.
+     */
+    public GameServer(int port, TableRules rules, int numAiPlayers, int startingChips) throws IOException
+    {
+        if (numAiPlayers < 0 || startingChips < 1)
+        {
+            throw new IllegalArgumentException("AI players must not be negative and starting chips must be positive");
+        }
+        this.rules = rules;
+        this.numAiPlayers = numAiPlayers;
+        this.startingChips = startingChips;
+        this.serverSocket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+    }
+
+    /**
+     * Avvia l'accettazione delle connessioni su un thread virtuale.
+     */
+    public synchronized void start()
+    {
+        if (acceptor != null)
+        {
+            throw new IllegalStateException("Server already started");
+        }
+        acceptor = Thread.ofVirtual().name("game-server-acceptor").start(this::acceptLoop);
+    }
+
+    /**
+     * @return La porta su cui il server è in ascolto.
+     */
+    public int getPort()
+    {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Chiude il socket del server e interrompe le sessioni aperte.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        serverSocket.close();
+        sessions.shutdownNow();
+    }
+
+    private void acceptLoop()
+    {
+        while (!serverSocket.isClosed())
+        {
+            try
+            {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                sessions.execute(new TableSession(socket, rules, numAiPlayers, startingChips));
+            } catch (SocketException e)
+            {
+                return; // Socket chiuso da close()
+            } catch (IOException e)
+            {
+                System.err.println("Errore durante l'accettazione di una connessione: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Avvia il server dalla riga di comando ({@code --port=N --ai=N --chips=N --decks=N})
+     * e resta in esecuzione finché il processo non viene terminato.
+     *
+     * @param args Gli argomenti della riga di comando.
+     * @throws IOException          se il socket non può essere aperto.
+     * @throws InterruptedException se il thread principale viene interrotto.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException
+    {
+        int port = DEFAULT_PORT;
+        int numAiPlayers = 0;
+        int startingChips = 1000;
+        int numDecks = TableRules.DEFAULT.getNumDecks();
+        for (String arg : args)
+        {
+            int separator = arg.indexOf('=');
+            String name = separator < 0 ? arg : arg.substring(0, separator);
+            String value = separator < 0 ? "" : arg.substring(separator + 1);
+            switch (name)
+            {
+                case "--server":
+                    break;
+                case "--port":
+                    port = Integer.parseInt(value);
+                    break;
+                case "--ai":
+                    numAiPlayers = Integer.parseInt(value);
+                    break;
+                case "--chips":
+                    startingChips = Integer.parseInt(value);
+                    break;
+                case "--decks":
+                    numDecks = Integer.parseInt(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+
+        GameServer server = new GameServer(port, TableRules.DEFAULT.withNumDecks(numDecks), numAiPlayers, startingChips);
+        server.start();
+        System.out.println("Server di gioco in ascolto sulla porta " + server.getPort());
+        server.acceptor.join();
+    }
+}
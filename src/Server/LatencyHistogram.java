@@ -0,0 +1,107 @@
+package Server;
+
+/**
+ * Istogramma delle latenze a precisione relativa costante.
+ * I valori sono raggruppati per potenza di due e ogni potenza è divisa in 16 intervalli lineari,
+ * così che i percentili abbiano un errore relativo inferiore al 7% qualunque sia l'ordine di grandezza,
+ * con un array fisso di contatori e nessuna allocazione per registrazione.
+ * <p>
+ * Ogni thread registra nel proprio istogramma; i risultati parziali vengono fusi con {@link #merge(LatencyHistogram)}.
+ */
+public class LatencyHistogram
+{
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (63 - SUB_BUCKET_BITS) * SUB_BUCKETS + 2 * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long total;
+    private long max;
+
+    /**
+     * Registra una latenza.
+     *
+     * @param nanos La latenza in nanosecondi (i valori negativi vengono contati come 0).
+     */
+    public void record(long nanos)
+    {
+        long value = Math.max(0, nanos);
+        counts[index(value)]++;
+        total++;
+        if (value > max)
+        {
+            max = value;
+        }
+    }
+
+    /**
+     * Aggiunge i conteggi di un altro istogramma.
+     *
+     * @param other L'istogramma da fondere.
+     */
+    public void merge(LatencyHistogram other)
+    {
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Restituisce il percentile richiesto.
+     *
+     * @param percentile Il percentile, tra 0 e 100.
+     * @return Il valore approssimato in nanosecondi, oppure 0 se l'istogramma è vuoto.
+     */
+    public long percentile(double percentile)
+    {
+        if (total == 0)
+        {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            seen += counts[i];
+            if (seen >= target)
+            {
+                return Math.min(max, midpoint(i));
+            }
+        }
+        return max;
+    }
+
+    public long getCount()
+    {
+        return total;
+    }
+
+    public long getMax()
+    {
+        return max;
+    }
+
+    private static int index(long value)
+    {
+        if (value < 2 * SUB_BUCKETS)
+        {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    private static long midpoint(int index)
+    {
+        if (index < 2 * SUB_BUCKETS)
+        {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lower = (long) (index - shift * SUB_BUCKETS) << shift;
+        return lower + (1L << shift >> 1);
+    }
+}
@@ -0,0 +1,420 @@
+package Server;
+
+import Model.BasicStrategy;
+import Model.Card;
+import Model.FrameDecoder;
+import Model.FrameEncoder;
+import Model.Player;
+import Model.PlayerAction;
+import Model.RoundEngine;
+import Model.Strategy;
+import Model.TableRules;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generatore di carico per il {@link GameServer}.
+ * Apre molti posti concorrenti, ciascuno su un thread virtuale con la propria connessione in modalità binaria,
+ * li gioca con una strategia come quella degli AI Players e riporta il throughput, i percentili della
+ * latenza delle azioni (dal comando inviato al frame di risposta decodificato) e il numero di errori.
+ * <p>
+ * Senza {@code --port} viene avviato un server nello stesso processo, con le stesse regole.
+ * <p>
+ * Esempio: {@code java JBLackJack --load --seats=2000 --rounds=200 --strategy=basic --ai=2}
+ */
+public class LoadGenerator
+{
+    private final int port;
+    private final int seats;
+    private final int rounds;
+    private final int bet;
+    private final Strategy strategy;
+
+    /**
+     * @param port     La porta del server sull'interfaccia di loopback.
+     * @param seats    Il numero di posti concorrenti.
+     * @param rounds   Il numero di round da giocare per posto.
+     * @param bet      La scommessa di ogni round.
+     * @param strategy La strategia dei posti; deve poter essere condivisa tra thread.
+     */
+    public LoadGenerator(int port, int seats, int rounds, int bet, Strategy strategy)
+    {
+        if (seats < 1 || rounds < 1 || bet < 1)
+        {
+            throw new IllegalArgumentException("Seats, rounds and bet must be positive");
+        }
+        this.port = port;
+        this.seats = seats;
+        this.rounds = rounds;
+        this.bet = bet;
+        this.strategy = strategy;
+    }
+
+    /**
+     * Gioca tutti i posti e ne aggrega i risultati.
+     *
+     * @return Le statistiche aggregate.
+     * @throws InterruptedException se il thread viene interrotto durante l'attesa dei posti.
+     */
+    public Report run() throws InterruptedException
+    {
+        Report report = new Report();
+        long startTime = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor())
+        {
+            List<Future<Seat>> futures = new ArrayList<>(seats);
+            for (int i = 0; i < seats; i++)
+            {
+                futures.add(executor.submit(() -> new Seat(strategy).play(port, rounds, bet)));
+            }
+            for (Future<Seat> future : futures)
+            {
+                try
+                {
+                    report.add(future.get());
+                } catch (ExecutionException e)
+                {
+                    report.connectionErrors++;
+                }
+            }
+        }
+        report.seconds = (System.nanoTime() - startTime) / 1e9;
+        return report;
+    }
+
+    /**
+     * Risultati aggregati di un'esecuzione.
+     */
+    public static class Report
+    {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private long rounds;
+        private long protocolErrors;
+        private long connectionErrors;
+        private double seconds;
+
+        private void add(Seat seat)
+        {
+            latency.merge(seat.latency);
+            rounds += seat.rounds;
+            protocolErrors += seat.errors;
+            if (seat.failed)
+            {
+                connectionErrors++;
+            }
+        }
+
+        public LatencyHistogram getLatency()
+        {
+            return latency;
+        }
+
+        public long getRounds()
+        {
+            return rounds;
+        }
+
+        public long getProtocolErrors()
+        {
+            return protocolErrors;
+        }
+
+        public long getConnectionErrors()
+        {
+            return connectionErrors;
+        }
+
+        public double getSeconds()
+        {
+            return seconds;
+        }
+    }
+
+    /**
+     * Un posto del generatore: ricostruisce la propria mano dai frame ricevuti e decide con la strategia.
+     */
+    private static class Seat implements FrameDecoder.Handler
+    {
+        private final Strategy strategy;
+        private final Player player = new Player();
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final FrameDecoder decoder = new FrameDecoder(this);
+        private long rounds;
+        private long errors;
+        private boolean failed;
+
+        private RoundEngine.Phase phase = RoundEngine.Phase.BETTING;
+        private Card dealerUpCard;
+        private int options;
+        private boolean rejected; // true se l'ultimo comando ha ricevuto un errore
+
+        Seat(Strategy strategy)
+        {
+            this.strategy = strategy;
+        }
+
+        Seat play(int port, int rounds, int bet)
+        {
+            byte[] betCommand = ("BET " + bet + "\n").getBytes(StandardCharsets.US_ASCII);
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+                 InputStream in = new BufferedInputStream(socket.getInputStream());
+                 OutputStream out = new BufferedOutputStream(socket.getOutputStream()))
+            {
+                socket.setTcpNoDelay(true);
+                readLine(in); // WELCOME
+                out.write("MODE BINARY\n".getBytes(StandardCharsets.US_ASCII));
+                out.flush();
+                readLine(in);
+
+                for (int round = 0; round < rounds; round++)
+                {
+                    if (!send(in, out, betCommand))
+                    {
+                        break; // Fiches esaurite o tavolo non disponibile
+                    }
+                    while (phase != RoundEngine.Phase.SETTLED)
+                    {
+                        byte[] command = phase == RoundEngine.Phase.INSURANCE
+                                ? insuranceCommand()
+                                : actionCommand();
+                        if (!send(in, out, command))
+                        {
+                            return this;
+                        }
+                    }
+                    this.rounds++;
+                }
+                out.write("QUIT\n".getBytes(StandardCharsets.US_ASCII));
+                out.flush();
+            } catch (IOException e)
+            {
+                failed = true;
+            }
+            return this;
+        }
+
+        private byte[] insuranceCommand()
+        {
+            boolean take = strategy.takeInsurance(player, dealerUpCard);
+            return (take ? "INSURANCE YES\n" : "INSURANCE NO\n").getBytes(StandardCharsets.US_ASCII);
+        }
+
+        private byte[] actionCommand()
+        {
+            boolean splitHand = (options & FrameEncoder.OPTION_SPLIT_HAND) != 0;
+            PlayerAction action = strategy.decide(player, splitHand, dealerUpCard,
+                    FrameDecoder.isAllowed(options, PlayerAction.DOUBLE),
+                    FrameDecoder.isAllowed(options, PlayerAction.SPLIT),
+                    FrameDecoder.isAllowed(options, PlayerAction.SURRENDER));
+            return (action.name() + "\n").getBytes(StandardCharsets.US_ASCII);
+        }
+
+        /**
+         * Invia un comando e decodifica il frame di risposta, registrandone la latenza.
+         *
+         * @return {@code false} se il server ha rifiutato il comando.
+         */
+        private boolean send(InputStream in, OutputStream out, byte[] command) throws IOException
+        {
+            rejected = false;
+            long start = System.nanoTime();
+            out.write(command);
+            out.flush();
+            if (!decoder.read(in))
+            {
+                throw new IOException("Connection closed by the server");
+            }
+            latency.record(System.nanoTime() - start);
+            return !rejected;
+        }
+
+        private static void readLine(InputStream in) throws IOException
+        {
+            int b;
+            while ((b = in.read()) != '\n')
+            {
+                if (b < 0)
+                {
+                    throw new IOException("Connection closed by the server");
+                }
+            }
+        }
+
+        @Override
+        public void cardDealt(int seat, boolean splitHand, Card card)
+        {
+            if (seat == DEALER_SEAT)
+            {
+                if (dealerUpCard == null)
+                {
+                    dealerUpCard = card;
+                }
+            } else if (seat == RoundEngine.PLAYER_SEAT)
+            {
+                if (splitHand)
+                {
+                    player.addCardToSplitHand(card);
+                } else
+                {
+                    player.addCard(card);
+                }
+            }
+        }
+
+        @Override
+        public void handSplit(int seat)
+        {
+            if (seat == RoundEngine.PLAYER_SEAT)
+            {
+                player.splitMainHand();
+            }
+        }
+
+        @Override
+        public void chipsChanged(int seat, int delta)
+        {
+            // Le fiches vengono verificate dal server: al generatore basta la mano
+        }
+
+        @Override
+        public void phaseChanged(RoundEngine.Phase phase)
+        {
+            this.phase = phase;
+            if (phase == RoundEngine.Phase.BETTING)
+            {
+                player.clearHand();
+                dealerUpCard = null;
+            }
+        }
+
+        @Override
+        public void optionsChanged(int mask)
+        {
+            options = mask;
+        }
+
+        @Override
+        public void error(String message)
+        {
+            errors++;
+            rejected = true;
+        }
+    }
+
+    /**
+     * Avvia il generatore dalla riga di comando
+     * ({@code --seats=N --rounds=N --bet=N --strategy=basic|stand --port=N --ai=N --chips=N --decks=N}).
+     *
+     * @param args Gli argomenti della riga di comando.
+     * @throws IOException          se il server interno non può essere avviato.
+     * @throws InterruptedException se il thread principale viene interrotto.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException
+    {
+        int port = 0;
+        int seats = 1000;
+        int rounds = 100;
+        int bet = 10;
+        int numAiPlayers = 0;
+        int startingChips = 1_000_000;
+        int numDecks = TableRules.DEFAULT.getNumDecks();
+        String strategyName = "basic";
+        for (String arg : args)
+        {
+            int separator = arg.indexOf('=');
+            String name = separator < 0 ? arg : arg.substring(0, separator);
+            String value = separator < 0 ? "" : arg.substring(separator + 1);
+            switch (name)
+            {
+                case "--load":
+                    break;
+                case "--port":
+                    port = Integer.parseInt(value);
+                    break;
+                case "--seats":
+                    seats = Integer.parseInt(value);
+                    break;
+                case "--rounds":
+                    rounds = Integer.parseInt(value);
+                    break;
+                case "--bet":
+                    bet = Integer.parseInt(value);
+                    break;
+                case "--ai":
+                    numAiPlayers = Integer.parseInt(value);
+                    break;
+                case "--chips":
+                    startingChips = Integer.parseInt(value);
+                    break;
+                case "--decks":
+                    numDecks = Integer.parseInt(value);
+                    break;
+                case "--strategy":
+                    strategyName = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+
+        TableRules rules = TableRules.DEFAULT.withNumDecks(numDecks);
+        Strategy strategy;
+        switch (strategyName)
+        {
+            case "basic":
+                strategy = new BasicStrategy(rules);
+                break;
+            case "stand":
+                strategy = (player, isSplitHand, dealerUpCard, canDouble, canSplit, canSurrender) -> PlayerAction.STAND;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown strategy: " + strategyName);
+        }
+
+        GameServer server = null;
+        if (port == 0)
+        {
+            server = new GameServer(0, rules, numAiPlayers, startingChips);
+            server.start();
+            port = server.getPort();
+        }
+        try
+        {
+            System.out.println("Generatore di carico: " + seats + " posti, " + rounds + " round per posto, porta " + port);
+            Report report = new LoadGenerator(port, seats, rounds, bet, strategy).run();
+            printReport(report);
+        } finally
+        {
+            if (server != null)
+            {
+                server.close();
+            }
+        }
+    }
+
+    private static void printReport(Report report)
+    {
+        LatencyHistogram latency = report.getLatency();
+        System.out.printf("Round giocati: %d in %.2f s (%.0f round/s)%n",
+                report.getRounds(), report.getSeconds(), report.getRounds() / report.getSeconds());
+        System.out.printf("Azioni: %d (%.0f azioni/s)%n", latency.getCount(), latency.getCount() / report.getSeconds());
+        System.out.printf("Latenza delle azioni: p50 %.3f ms, p99 %.3f ms, p999 %.3f ms, max %.3f ms%n",
+                latency.percentile(50) / 1e6, latency.percentile(99) / 1e6,
+                latency.percentile(99.9) / 1e6, latency.getMax() / 1e6);
+        System.out.println("Errori: " + report.getProtocolErrors() + " di protocollo, "
+                + report.getConnectionErrors() + " di connessione");
+    }
+}
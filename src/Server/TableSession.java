@@ -0,0 +1,321 @@
+package Server;
+
+import Model.BlackJackGame;
+import Model.Card;
+import Model.FrameEncoder;
+import Model.HandValue;
+import Model.Player;
+import Model.PlayerAction;
+import Model.RoundEngine;
+import Model.RoundResult;
+import Model.TableRules;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Sessione di un giocatore collegato al {@link GameServer}, con il proprio tavolo.
+ * Espone le azioni del {@link Controller.BlackJackController} come comandi di testo, una riga per comando:
+ * <pre>
+ * BET n              scommette n fiches e distribuisce le carte
+ * INSURANCE YES|NO   accetta o rifiuta l'assicurazione quando il dealer mostra un Asso
+ * HIT | STAND | DOUBLE | SPLIT | SURRENDER
+ * MODE BINARY        passa alle risposte binarie di {@link FrameEncoder}
+ * QUIT               chiude la sessione
+ * </pre>
+ * Ogni comando riceve una riga di risposta:
+ * <pre>
+ * WELCOME chips=1000
+ * INSURANCE hand=AS,7D total=18 dealer=AH
+ * TURN hand=8S,8D total=16 dealer=TC options=HIT,STAND,DOUBLE,SPLIT
+ * TURN hand=8S,3H total=11 split=8D,KS splitTotal=18 active=MAIN dealer=TC options=HIT,STAND
+ * RESULT net=-10 chips=990 hand=... total=... dealer=TC,7H dealerTotal=17
+ * ERROR messaggio
+ * BYE
+ * </pre>
+ * Le carte sono scritte come rango ({@code A23456789TJQK}) seguito dal seme ({@code HDSC}).
+ * <p>
+ * Dopo {@code MODE BINARY}, confermato dalla riga {@code MODE BINARY}, i comandi restano righe di testo
+ * ma ogni risposta è un frame binario con i soli aggiornamenti prodotti dal comando: le carte
+ * distribuite, le variazioni delle fiches, i cambi di fase e, durante il turno, le azioni consentite.
+ * <p>
+ * Una riga di comando più lunga di {@link #MAX_LINE_LENGTH} byte chiude la connessione, così che
+ * un client che non invia mai un a capo non possa far crescere la memoria della sessione.
+ */
+public class TableSession implements Runnable
+{
+    private static final String RANKS = "A23456789TJQK";
+    private static final String SUITS = "HDSC";
+
+    /** Lunghezza massima in byte di una riga di comando, a capo escluso. */
+    public static final int MAX_LINE_LENGTH = 256;
+
+    private final Socket socket;
+    private final Player player;
+    private final BlackJackGame game;
+    private final RoundEngine engine;
+    private FrameEncoder encoder; // Non nullo in modalità binaria
+    private final byte[] lineBuffer = new byte[MAX_LINE_LENGTH]; // Riga in lettura, riutilizzata a ogni comando
+
+    /**
+     * @param socket        La connessione del giocatore.
+     * @param rules         Le regole del tavolo.
+     * @param numAiPlayers  Il numero di AI Players al tavolo.
+     * @param startingChips Le fiches iniziali del giocatore.
+     */
+    public TableSession(Socket socket, TableRules rules, int numAiPlayers, int startingChips)
+    {
+        this.socket = socket;
+        this.player = new Player();
+        player.setChips(startingChips);
+        this.game = new BlackJackGame(player, rules, new SplittableRandom());
+        game.initializeAiPlayers(numAiPlayers);
+        this.engine = new RoundEngine(game);
+    }
+
+    @Override
+    public void run()
+    {
+        try (Socket connection = socket;
+             InputStream in = new BufferedInputStream(connection.getInputStream());
+             OutputStream out = new BufferedOutputStream(connection.getOutputStream()))
+        {
+            send(out, "WELCOME chips=" + player.getChips());
+            String line;
+            while ((line = readLine(in)) != null)
+            {
+                String command = line.trim();
+                if (command.isEmpty())
+                {
+                    continue;
+                }
+                if (command.equalsIgnoreCase("QUIT"))
+                {
+                    if (encoder == null)
+                    {
+                        send(out, "BYE");
+                    }
+                    return;
+                }
+                if (encoder != null)
+                {
+                    handleBinary(command);
+                    encoder.writeTo(out);
+                    out.flush();
+                } else if (command.equalsIgnoreCase("MODE BINARY"))
+                {
+                    encoder = new FrameEncoder();
+                    engine.setListener(encoder);
+                    send(out, "MODE BINARY");
+                } else
+                {
+                    send(out, handle(command));
+                }
+            }
+        } catch (IOException e)
+        {
+            // Il giocatore si è disconnesso o ha inviato una riga troppo lunga: il tavolo viene abbandonato
+        }
+    }
+
+    /**
+     * Legge una riga di comando di al più {@link #MAX_LINE_LENGTH} byte, terminata da {@code \n} o {@code \r\n}.
+     *
+     * @param in Lo stream della connessione.
+     * @return La riga senza il terminatore, oppure {@code null} se lo stream è finito prima di una nuova riga.
+     * @throws IOException se la lettura fallisce o la riga supera la lunghezza massima.
+     */
+    private String readLine(InputStream in) throws IOException
+    {
+        int length = 0;
+        int b;
+        while ((b = in.read()) != '\n')
+        {
+            if (b < 0)
+            {
+                return length == 0 ? null : decodeLine(length);
+            }
+            if (length == lineBuffer.length)
+            {
+                throw new IOException("Command line longer than " + MAX_LINE_LENGTH + " bytes");
+            }
+            lineBuffer[length++] = (byte) b;
+        }
+        return decodeLine(length);
+    }
+
+    private String decodeLine(int length)
+    {
+        if (length > 0 && lineBuffer[length - 1] == '\r')
+        {
+            length--;
+        }
+        return new String(lineBuffer, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Esegue un comando e restituisce la risposta.
+     *
+     * @param command La riga ricevuta dal giocatore.
+     * @return La riga di risposta.
+     */
+    String handle(String command)
+    {
+        String error = execute(command);
+        return error != null ? error : describeState();
+    }
+
+    /**
+     * Esegue un comando in modalità binaria: gli aggiornamenti arrivano al codificatore
+     * tramite il motore, a cui si aggiungono le opzioni del turno oppure l'errore.
+     *
+     * @param command La riga ricevuta dal giocatore.
+     */
+    void handleBinary(String command)
+    {
+        String error = execute(command);
+        if (error != null)
+        {
+            encoder.error(error.substring("ERROR ".length()));
+        } else if (engine.getPhase() == RoundEngine.Phase.PLAYER_TURN)
+        {
+            encoder.options(engine);
+        }
+    }
+
+    /**
+     * @return {@code null} se il comando è stato eseguito, altrimenti la riga di errore.
+     */
+    private String execute(String command)
+    {
+        String[] parts = command.split("\\s+");
+        try
+        {
+            switch (parts[0].toUpperCase(Locale.ROOT))
+            {
+                case "BET":
+                    if (parts.length != 2)
+                    {
+                        return "ERROR usage: BET amount";
+                    }
+                    int amount = Integer.parseInt(parts[1]);
+                    if (amount < 1 || amount > player.getChips())
+                    {
+                        return "ERROR invalid bet " + amount;
+                    }
+                    engine.beginRound(amount);
+                    break;
+                case "INSURANCE":
+                    engine.resolveInsurance(parts.length > 1 && parts[1].equalsIgnoreCase("YES"));
+                    break;
+                case "HIT":
+                case "STAND":
+                case "DOUBLE":
+                case "SPLIT":
+                case "SURRENDER":
+                    engine.act(PlayerAction.valueOf(parts[0].toUpperCase(Locale.ROOT)));
+                    break;
+                default:
+                    return "ERROR unknown command " + parts[0];
+            }
+        } catch (IllegalStateException | NumberFormatException e)
+        {
+            return "ERROR " + e.getMessage();
+        }
+        return null;
+    }
+
+    private String describeState()
+    {
+        StringBuilder sb = new StringBuilder(96);
+        switch (engine.getPhase())
+        {
+            case INSURANCE:
+                sb.append("INSURANCE");
+                appendHands(sb);
+                sb.append(" dealer=");
+                appendCard(sb, engine.getDealerUpCard());
+                break;
+            case PLAYER_TURN:
+                sb.append("TURN");
+                appendHands(sb);
+                if (!player.getSplitHand().isEmpty())
+                {
+                    sb.append(" active=").append(engine.isPlayingSplitHand() ? "SPLIT" : "MAIN");
+                }
+                sb.append(" dealer=");
+                appendCard(sb, engine.getDealerUpCard());
+                sb.append(" options=HIT,STAND");
+                if (engine.canDouble())
+                {
+                    sb.append(",DOUBLE");
+                }
+                if (engine.canSplit())
+                {
+                    sb.append(",SPLIT");
+                }
+                if (engine.canSurrender())
+                {
+                    sb.append(",SURRENDER");
+                }
+                break;
+            default:
+                RoundResult result = engine.getResult();
+                sb.append("RESULT net=").append(result.getNet(RoundEngine.PLAYER_SEAT));
+                sb.append(" chips=").append(player.getChips());
+                appendHands(sb);
+                sb.append(" dealer=");
+                appendCards(sb, game.getDealer().getHand());
+                sb.append(" dealerTotal=").append(game.getDealer().bestTotal());
+                break;
+        }
+        return sb.toString();
+    }
+
+    private void appendHands(StringBuilder sb)
+    {
+        sb.append(" hand=");
+        appendCards(sb, player.getHand());
+        sb.append(" total=").append(player.bestTotal());
+        if (!player.getSplitHand().isEmpty())
+        {
+            HandValue splitValue = player.getSplitHandValue();
+            sb.append(" split=");
+            appendCards(sb, player.getSplitHand());
+            sb.append(" splitTotal=").append(splitValue.bestTotal());
+        }
+    }
+
+    private static void appendCards(StringBuilder sb, List<Card> cards)
+    {
+        for (int i = 0; i < cards.size(); i++)
+        {
+            if (i > 0)
+            {
+                sb.append(',');
+            }
+            appendCard(sb, cards.get(i));
+        }
+    }
+
+    private static void appendCard(StringBuilder sb, Card card)
+    {
+        sb.append(RANKS.charAt(card.getCardValueType().ordinal()));
+        sb.append(SUITS.charAt(card.getSuit().ordinal()));
+    }
+
+    private static void send(OutputStream out, String line) throws IOException
+    {
+        out.write(line.getBytes(StandardCharsets.UTF_8));
+        out.write('\n');
+        out.flush();
+    }
+}
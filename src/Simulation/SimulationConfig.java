@@ -0,0 +1,244 @@
+package Simulation;
+
+import Model.TableRules;
+
+import java.util.SplittableRandom;
+
+/**
+ * Parametri di una simulazione Monte Carlo.
+ * I posti simulati sono tutti AI Players che puntano una scommessa fissa.
+ */
+public class SimulationConfig
+{
+    private static final double DEFAULT_PENETRATION = 0.75;
+
+    /** Sintassi della modalità di simulazione, con tutte le opzioni accettate da {@link #fromArgs(String[])}. */
+    public static final String USAGE = "--simulate [--rounds=N] [--ai=N] [--decks=N] [--bet=N] [--samples=N]"
+            + " [--threads=N] [--seed=N] [--strategy=basic|composition] [--h17] [--das] [--surrender]"
+            + " [--split-hands=1|2] [--payout=1:1|6:5|3:2] [--csm] [--penetration=F] [--replay=N]";
+
+    private final long rounds; // Numero totale di round da giocare
+    private final int numAiPlayers; // Posti al tavolo
+    private final TableRules rules; // Regole del tavolo, compreso il numero di mazzi
+    private final int bet; // Scommessa fissa di ogni posto
+    private final int samples; // Numero di campioni della traiettoria delle fiches
+    private final int parallelism; // Thread del pool fork/join
+    private final long seed; // Seme da cui derivano i generatori di tutti i tavoli
+    private final boolean compositionStrategy; // true se gli AI giocano con il valore atteso sulla composizione
+    private final boolean continuousShuffle; // true se lo shoe è una macchina a mescolamento continuo
+    private final double penetration; // Frazione dello shoe distribuita prima della carta di taglio
+
+    /**
+     * @param rounds       Numero totale di round da giocare.
+     * @param numAiPlayers Numero di AI Players al tavolo (almeno 1).
+     * @param rules        Regole dei tavoli simulati, compreso il numero di mazzi.
+     * @param bet          Scommessa fissa di ogni posto (almeno 1).
+     * @param samples      Numero di campioni della traiettoria delle fiches per posto.
+     * @param parallelism  Numero di thread di lavoro.
+     * @param seed         Seme della simulazione: a parità di seme i risultati sono identici.
+     * @param compositionStrategy {@code true} per far giocare gli AI con {@link Model.CompositionStrategy}
+     *                            invece della strategia di base.
+     * @param continuousShuffle   {@code true} per giocare con una macchina a mescolamento continuo (CSM).
+     * @param penetration         Frazione dello shoe distribuita prima della carta di taglio, in (0, 1].
+     * @throws IllegalArgumentException se un parametro è fuori dall'intervallo consentito.
+     */
+    public SimulationConfig(long rounds, int numAiPlayers, TableRules rules, int bet, int samples, int parallelism, long seed,
+                            boolean compositionStrategy, boolean continuousShuffle, double penetration)
+    {
+        if (rounds < 1 || numAiPlayers < 1 || bet < 1 || samples < 1 || parallelism < 1)
+        {
+            throw new IllegalArgumentException("Rounds, AI players, bet, samples and parallelism must be positive");
+        }
+        if (!(penetration > 0.0 && penetration <= 1.0))
+        {
+            throw new IllegalArgumentException("Penetration must be in (0, 1]");
+        }
+        this.rounds = rounds;
+        this.numAiPlayers = numAiPlayers;
+        this.rules = rules;
+        this.bet = bet;
+        this.samples = samples;
+        this.parallelism = parallelism;
+        this.seed = seed;
+        this.compositionStrategy = compositionStrategy;
+        this.continuousShuffle = continuousShuffle;
+        this.penetration = penetration;
+    }
+
+    /**
+     * Legge la configurazione dagli argomenti della riga di comando
+     * ({@code --rounds=N --ai=N --decks=N --bet=N --samples=N --threads=N --seed=N --strategy=basic|composition}),
+     * le varianti delle regole ({@code --h17 --das --surrender --split-hands=1|2 --payout=1:1|6:5|3:2})
+     * e dello shoe ({@code --csm --penetration=F}).
+     * Senza {@code --seed} viene scelto un seme casuale, stampato nel riepilogo per poterlo rigiocare.
+     * L'opzione {@code --replay=N} è accettata ma viene letta da {@link SimulationRunner}; l'elenco completo
+     * è in {@link #USAGE}.
+     *
+     * @param args Gli argomenti della riga di comando.
+     * @return La configurazione, con i valori predefiniti per le opzioni mancanti.
+     * @throws IllegalArgumentException se un'opzione non è riconosciuta.
+     */
+    public static SimulationConfig fromArgs(String[] args)
+    {
+        long rounds = 1_000_000;
+        int numAiPlayers = 3;
+        int numDecks = TableRules.DEFAULT.getNumDecks();
+        int bet = 10;
+        int samples = 100;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        long seed = new SplittableRandom().nextLong();
+        boolean compositionStrategy = false;
+        boolean continuousShuffle = false;
+        double penetration = DEFAULT_PENETRATION;
+        TableRules defaults = TableRules.DEFAULT;
+        boolean dealerHitsSoft17 = defaults.isDealerHitsSoft17();
+        boolean doubleAfterSplit = defaults.isDoubleAfterSplit();
+        int maxSplitHands = defaults.getMaxSplitHands();
+        boolean lateSurrender = defaults.isLateSurrender();
+        TableRules.Payout payout = defaults.getPayout();
+
+        for (String arg : args)
+        {
+            int separator = arg.indexOf('=');
+            String name = separator < 0 ? arg : arg.substring(0, separator);
+            String value = separator < 0 ? "" : arg.substring(separator + 1);
+            switch (name)
+            {
+                case "--simulate":
+                    break;
+                case "--rounds":
+                    rounds = Long.parseLong(value);
+                    break;
+                case "--ai":
+                    numAiPlayers = Integer.parseInt(value);
+                    break;
+                case "--decks":
+                    numDecks = Integer.parseInt(value);
+                    break;
+                case "--bet":
+                    bet = Integer.parseInt(value);
+                    break;
+                case "--samples":
+                    samples = Integer.parseInt(value);
+                    break;
+                case "--threads":
+                    parallelism = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--strategy":
+                    if (!value.equals("basic") && !value.equals("composition"))
+                    {
+                        throw new IllegalArgumentException("Unknown strategy: " + value);
+                    }
+                    compositionStrategy = value.equals("composition");
+                    break;
+                case "--h17":
+                    dealerHitsSoft17 = true;
+                    break;
+                case "--das":
+                    doubleAfterSplit = true;
+                    break;
+                case "--surrender":
+                    lateSurrender = true;
+                    break;
+                case "--split-hands":
+                    maxSplitHands = Integer.parseInt(value);
+                    break;
+                case "--payout":
+                    payout = parsePayout(value);
+                    break;
+                case "--csm":
+                    continuousShuffle = true;
+                    break;
+                case "--penetration":
+                    penetration = Double.parseDouble(value);
+                    break;
+                case "--replay":
+                    break; // Gestita da SimulationRunner
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        TableRules rules = new TableRules(dealerHitsSoft17, doubleAfterSplit, maxSplitHands, lateSurrender, payout, numDecks);
+        return new SimulationConfig(rounds, numAiPlayers, rules, bet, samples, parallelism, seed, compositionStrategy,
+                continuousShuffle, penetration);
+    }
+
+    private static TableRules.Payout parsePayout(String value)
+    {
+        for (TableRules.Payout payout : TableRules.Payout.values())
+        {
+            if (payout.toString().equals(value))
+            {
+                return payout;
+            }
+        }
+        throw new IllegalArgumentException("Unknown payout: " + value);
+    }
+
+    public long getRounds()
+    {
+        return rounds;
+    }
+
+    public int getNumAiPlayers()
+    {
+        return numAiPlayers;
+    }
+
+    public TableRules getRules()
+    {
+        return rules;
+    }
+
+    public int getNumDecks()
+    {
+        return rules.getNumDecks();
+    }
+
+    public int getBet()
+    {
+        return bet;
+    }
+
+    public int getSamples()
+    {
+        return samples;
+    }
+
+    public int getParallelism()
+    {
+        return parallelism;
+    }
+
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    public boolean isCompositionStrategy()
+    {
+        return compositionStrategy;
+    }
+
+    public boolean isContinuousShuffle()
+    {
+        return continuousShuffle;
+    }
+
+    public double getPenetration()
+    {
+        return penetration;
+    }
+
+    @Override
+    public String toString()
+    {
+        return rounds + " round, " + numAiPlayers + " AI Players, " + rules + ", scommessa " + bet
+                + ", strategia " + (compositionStrategy ? "sulla composizione" : "di base")
+                + (continuousShuffle ? ", shoe CSM" : ", penetrazione " + penetration)
+                + ", " + parallelism + " thread, seme " + seed;
+    }
+}
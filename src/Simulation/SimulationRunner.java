@@ -0,0 +1,131 @@
+package Simulation;
+
+import Model.AiPlayer;
+import Model.BlackJackGame;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Modalità di simulazione da riga di comando.
+ * Gioca milioni di round con il {@link Model.RoundEngine} in parallelo su tutti i core
+ * e stampa vantaggio del banco, varianza, percentuali di sballo e traiettorie delle fiches.
+ * <p>
+ * Esempio: {@code java JBLackJack --simulate --rounds=100000000 --ai=3 --decks=6 --bet=10 --seed=42}
+ * <p>
+ * Con {@code --replay=N} viene rigiocato solo il round N della simulazione con lo stesso seme,
+ * mostrando le mani esattamente come erano state giocate.
+ */
+public class SimulationRunner
+{
+    /**
+     * Esegue la simulazione descritta dalla configurazione.
+     *
+     * @param config La configurazione della simulazione.
+     * @return Le statistiche aggregate di tutti i round.
+     */
+    public static SimulationStats run(SimulationConfig config)
+    {
+        long sampleInterval = Math.max(1, config.getRounds() / config.getSamples());
+        ForkJoinPool pool = new ForkJoinPool(config.getParallelism());
+        try
+        {
+            return pool.invoke(new SimulationTask(config, 0, SimulationTask.chunkCount(config), sampleInterval));
+        } finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Rigioca un singolo round di una simulazione, ricreando il tavolo del suo blocco
+     * dallo stesso seme e giocando tutti i round precedenti del blocco.
+     *
+     * @param config La configurazione della simulazione originale.
+     * @param round  L'indice del round da rigiocare (da 0).
+     * @return Il gioco nello stato finale del round richiesto.
+     */
+    public static BlackJackGame replayRound(SimulationConfig config, long round)
+    {
+        if (round < 0 || round >= config.getRounds())
+        {
+            throw new IllegalArgumentException("Round " + round + " is outside the simulation");
+        }
+        SimulationTask.Table table = new SimulationTask.Table(config, round / SimulationTask.CHUNK_ROUNDS);
+        for (long i = round % SimulationTask.CHUNK_ROUNDS; i >= 0; i--)
+        {
+            table.playRound();
+        }
+        return table.getGame();
+    }
+
+    public static void main(String[] args)
+    {
+        SimulationConfig config;
+        long replay = -1;
+        try
+        {
+            config = SimulationConfig.fromArgs(args);
+            for (String arg : args)
+            {
+                if (arg.startsWith("--replay="))
+                {
+                    replay = Long.parseLong(arg.substring("--replay=".length()));
+                }
+            }
+        } catch (IllegalArgumentException e)
+        {
+            System.err.println(e.getMessage());
+            System.err.println("Uso: " + SimulationConfig.USAGE);
+            return;
+        }
+
+        if (replay >= 0)
+        {
+            printReplay(replayRound(config, replay), replay);
+            return;
+        }
+
+        System.out.println("Simulazione: " + config);
+        long startTime = System.nanoTime();
+        SimulationStats stats = run(config);
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        printReport(stats, seconds);
+    }
+
+    private static void printReplay(BlackJackGame game, long round)
+    {
+        System.out.println("Round " + round + ":");
+        System.out.println("Dealer: " + game.getDealer().getHand() + " (" + game.getDealer().bestTotal() + ")");
+        for (AiPlayer aiPlayer : game.getAiPlayers())
+        {
+            System.out.print(aiPlayer.getNickname() + ": " + aiPlayer.getHand() + " (" + aiPlayer.bestTotal() + ")");
+            if (!aiPlayer.getSplitHand().isEmpty())
+            {
+                System.out.print(", split " + aiPlayer.getSplitHand() + " (" + aiPlayer.getSplitHandValue().bestTotal() + ")");
+            }
+            System.out.println();
+        }
+    }
+
+    private static void printReport(SimulationStats stats, double seconds)
+    {
+        System.out.printf("Round giocati: %d in %.2f s (%.0f round/s)%n", stats.getRounds(), seconds, stats.getRounds() / seconds);
+        System.out.printf("Vantaggio del banco: %.4f%%%n", stats.getHouseEdge() * 100);
+        System.out.printf("Sballo del dealer: %.2f%%, Blackjack del dealer: %.2f%%%n",
+                stats.getDealerBustRate() * 100, stats.getDealerBlackJackRate() * 100);
+
+        for (int seat = 0; seat < stats.getSeats(); seat++)
+        {
+            System.out.printf("AI%d: vantaggio del banco %.4f%%, varianza %.2f, sballo %.2f%%, fiches nette %d%n",
+                    seat + 1, stats.getHouseEdge(seat) * 100, stats.getVariance(seat),
+                    stats.getBustRate(seat) * 100, stats.getNet(seat));
+
+            StringBuilder trajectory = new StringBuilder("AI" + (seat + 1) + " traiettoria:");
+            for (long chips : stats.getTrajectory(seat))
+            {
+                trajectory.append(' ').append(chips);
+            }
+            System.out.println(trajectory);
+        }
+    }
+}
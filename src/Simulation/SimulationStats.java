@@ -0,0 +1,218 @@
+package Simulation;
+
+import Model.RoundResult;
+
+import java.util.Arrays;
+
+/**
+ * Statistiche aggregate di una simulazione.
+ * Ogni worker accumula le proprie statistiche su un intervallo contiguo di round e
+ * i risultati parziali vengono fusi con {@link #merge(SimulationStats)} nell'ordine dei round,
+ * così che le traiettorie delle fiches restino continue.
+ */
+public class SimulationStats
+{
+    private final int seats; // Numero di AI Players simulati
+    private long rounds;
+    private long dealerBusts;
+    private long dealerBlackJacks;
+
+    private final long[] seatedRounds;
+    private final long[] hands;
+    private final long[] busts;
+    private final long[] wagered;
+    private final long[] net;
+    private final long[] netSquares; // Somma dei quadrati del risultato di ogni round, per la varianza
+
+    private long[][] trajectory; // Fiches nette cumulative per posto, campionate a intervalli regolari
+    private int sampleCount;
+
+    /**
+     * @param seats Numero di AI Players simulati.
+     */
+    public SimulationStats(int seats)
+    {
+        this.seats = seats;
+        seatedRounds = new long[seats];
+        hands = new long[seats];
+        busts = new long[seats];
+        wagered = new long[seats];
+        net = new long[seats];
+        netSquares = new long[seats];
+        trajectory = new long[seats][0];
+    }
+
+    /**
+     * Registra l'esito di un round, i cui posti degli AI partono da 1.
+     *
+     * @param result Esito del round.
+     * @param sample {@code true} se dopo questo round va campionata la traiettoria.
+     */
+    void record(RoundResult result, boolean sample)
+    {
+        rounds++;
+        if (result.isDealerBust())
+        {
+            dealerBusts++;
+        }
+        if (result.isDealerBlackJack())
+        {
+            dealerBlackJacks++;
+        }
+        for (int i = 0; i < seats; i++)
+        {
+            int seat = i + 1;
+            if (result.isSeated(seat))
+            {
+                long roundNet = result.getNet(seat);
+                seatedRounds[i]++;
+                hands[i] += result.getHands(seat);
+                busts[i] += result.getBusts(seat);
+                wagered[i] += result.getWagered(seat);
+                net[i] += roundNet;
+                netSquares[i] += roundNet * roundNet;
+            }
+        }
+        if (sample)
+        {
+            if (sampleCount == trajectory[0].length)
+            {
+                for (int i = 0; i < seats; i++)
+                {
+                    trajectory[i] = Arrays.copyOf(trajectory[i], Math.max(16, sampleCount * 2));
+                }
+            }
+            for (int i = 0; i < seats; i++)
+            {
+                trajectory[i][sampleCount] = net[i];
+            }
+            sampleCount++;
+        }
+    }
+
+    /**
+     * Fonde in queste statistiche quelle dei round immediatamente successivi.
+     *
+     * @param next Le statistiche dell'intervallo di round successivo.
+     * @return Queste statistiche, aggiornate.
+     */
+    public SimulationStats merge(SimulationStats next)
+    {
+        long[][] merged = new long[seats][];
+        for (int i = 0; i < seats; i++)
+        {
+            merged[i] = Arrays.copyOf(trajectory[i], sampleCount + next.sampleCount);
+            for (int s = 0; s < next.sampleCount; s++)
+            {
+                merged[i][sampleCount + s] = net[i] + next.trajectory[i][s];
+            }
+        }
+        trajectory = merged;
+        sampleCount += next.sampleCount;
+
+        rounds += next.rounds;
+        dealerBusts += next.dealerBusts;
+        dealerBlackJacks += next.dealerBlackJacks;
+        for (int i = 0; i < seats; i++)
+        {
+            seatedRounds[i] += next.seatedRounds[i];
+            hands[i] += next.hands[i];
+            busts[i] += next.busts[i];
+            wagered[i] += next.wagered[i];
+            net[i] += next.net[i];
+            netSquares[i] += next.netSquares[i];
+        }
+        return this;
+    }
+
+    public int getSeats()
+    {
+        return seats;
+    }
+
+    public long getRounds()
+    {
+        return rounds;
+    }
+
+    /**
+     * @return Il vantaggio del banco: fiches perse dai posti diviso fiches puntate.
+     */
+    public double getHouseEdge()
+    {
+        long totalNet = 0;
+        long totalWagered = 0;
+        for (int i = 0; i < seats; i++)
+        {
+            totalNet += net[i];
+            totalWagered += wagered[i];
+        }
+        return totalWagered == 0 ? 0.0 : -(double) totalNet / totalWagered;
+    }
+
+    /**
+     * @param seat Indice dell'AI Player (da 0).
+     * @return Il vantaggio del banco contro quel posto.
+     */
+    public double getHouseEdge(int seat)
+    {
+        return wagered[seat] == 0 ? 0.0 : -(double) net[seat] / wagered[seat];
+    }
+
+    /**
+     * @param seat Indice dell'AI Player (da 0).
+     * @return La varianza del risultato di un round per quel posto, in fiches al quadrato.
+     */
+    public double getVariance(int seat)
+    {
+        if (seatedRounds[seat] == 0)
+        {
+            return 0.0;
+        }
+        double mean = (double) net[seat] / seatedRounds[seat];
+        return (double) netSquares[seat] / seatedRounds[seat] - mean * mean;
+    }
+
+    /**
+     * @param seat Indice dell'AI Player (da 0).
+     * @return La frazione di mani sballate da quel posto.
+     */
+    public double getBustRate(int seat)
+    {
+        return hands[seat] == 0 ? 0.0 : (double) busts[seat] / hands[seat];
+    }
+
+    /**
+     * @return La frazione di round in cui il dealer ha sballato.
+     */
+    public double getDealerBustRate()
+    {
+        return rounds == 0 ? 0.0 : (double) dealerBusts / rounds;
+    }
+
+    /**
+     * @return La frazione di round in cui il dealer ha fatto Blackjack.
+     */
+    public double getDealerBlackJackRate()
+    {
+        return rounds == 0 ? 0.0 : (double) dealerBlackJacks / rounds;
+    }
+
+    /**
+     * @param seat Indice dell'AI Player (da 0).
+     * @return Le fiches nette totali di quel posto.
+     */
+    public long getNet(int seat)
+    {
+        return net[seat];
+    }
+
+    /**
+     * @param seat Indice dell'AI Player (da 0).
+     * @return Le fiches nette cumulative di quel posto in ogni campione.
+     */
+    public long[] getTrajectory(int seat)
+    {
+        return Arrays.copyOf(trajectory[seat], sampleCount);
+    }
+}
@@ -0,0 +1,144 @@
+package Simulation;
+
+import Model.AiPlayer;
+import Model.BlackJackGame;
+import Model.CompositionStrategy;
+import Model.RoundEngine;
+import Model.RoundResult;
+import Model.Strategy;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Task fork/join che simula un intervallo contiguo di round.
+ * I round sono raggruppati in blocchi di {@link #CHUNK_ROUNDS}; gli intervalli con più blocchi
+ * vengono divisi a metà e ogni blocco gioca su un tavolo proprio (gioco, shoe e motore
+ * indipendenti), quindi i worker non condividono stato.
+ * Il generatore di ogni blocco deriva solo dal seme della simulazione e dall'indice del blocco:
+ * il risultato non dipende dal numero di thread e ogni round può essere rigiocato.
+ */
+class SimulationTask extends RecursiveTask<SimulationStats>
+{
+    /** Numero di round giocati da un singolo blocco. */
+    static final long CHUNK_ROUNDS = 1 << 16;
+
+    /** Fiches assegnate a ogni posto: i posti vengono ricaricati quando scendono troppo. */
+    private static final int BANKROLL = 1_000_000_000;
+
+    /** Incremento della sequenza di Weyl usata per derivare i semi dei blocchi. */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final SimulationConfig config;
+    private final long firstChunk; // Primo blocco dell'intervallo (incluso)
+    private final long lastChunk; // Ultimo blocco dell'intervallo (escluso)
+    private final long sampleInterval; // Ogni quanti round campionare la traiettoria
+
+    SimulationTask(SimulationConfig config, long firstChunk, long lastChunk, long sampleInterval)
+    {
+        this.config = config;
+        this.firstChunk = firstChunk;
+        this.lastChunk = lastChunk;
+        this.sampleInterval = sampleInterval;
+    }
+
+    /**
+     * @param config La configurazione della simulazione.
+     * @return Il numero di blocchi necessari per giocare tutti i round.
+     */
+    static long chunkCount(SimulationConfig config)
+    {
+        return (config.getRounds() + CHUNK_ROUNDS - 1) / CHUNK_ROUNDS;
+    }
+
+    @Override
+    protected SimulationStats compute()
+    {
+        if (lastChunk - firstChunk == 1)
+        {
+            return playChunk();
+        }
+        long middle = firstChunk + (lastChunk - firstChunk) / 2;
+        SimulationTask left = new SimulationTask(config, firstChunk, middle, sampleInterval);
+        SimulationTask right = new SimulationTask(config, middle, lastChunk, sampleInterval);
+        left.fork();
+        SimulationStats rightStats = right.compute();
+        return left.join().merge(rightStats);
+    }
+
+    private SimulationStats playChunk()
+    {
+        long start = firstChunk * CHUNK_ROUNDS;
+        long end = Math.min(start + CHUNK_ROUNDS, config.getRounds());
+        Table table = new Table(config, firstChunk);
+
+        SimulationStats stats = new SimulationStats(config.getNumAiPlayers());
+        for (long round = start; round < end; round++)
+        {
+            stats.record(table.playRound(), (round + 1) % sampleInterval == 0);
+        }
+        return stats;
+    }
+
+    /**
+     * Tavolo simulato di un blocco, con il proprio gioco, shoe e motore.
+     */
+    static class Table
+    {
+        private final BlackJackGame game;
+        private final RoundEngine engine;
+        private final int minimumChips;
+
+        /**
+         * @param config La configurazione della simulazione.
+         * @param chunk  L'indice del blocco, da cui deriva il seme del tavolo.
+         */
+        Table(SimulationConfig config, long chunk)
+        {
+            game = new BlackJackGame(config.getRules(), new SplittableRandom(chunkSeed(config.getSeed(), chunk)));
+            game.initializeAiPlayers(config.getNumAiPlayers());
+            game.getDeck().setPenetration(config.getPenetration());
+            game.getDeck().setContinuousShuffle(config.isContinuousShuffle());
+            if (config.isCompositionStrategy())
+            {
+                Strategy strategy = new CompositionStrategy(game.getDeck(), config.getRules());
+                for (AiPlayer aiPlayer : game.getAiPlayers())
+                {
+                    aiPlayer.setStrategy(strategy);
+                }
+            }
+            engine = new RoundEngine(game);
+            engine.setAiBet(config.getBet());
+            minimumChips = config.getBet() * 16; // Abbastanza per raddoppi e split
+        }
+
+        RoundResult playRound()
+        {
+            for (AiPlayer aiPlayer : game.getAiPlayers())
+            {
+                if (aiPlayer.getChips() < minimumChips)
+                {
+                    aiPlayer.setChips(BANKROLL);
+                }
+            }
+            return engine.playRound(0, null);
+        }
+
+        BlackJackGame getGame()
+        {
+            return game;
+        }
+    }
+
+    /**
+     * Deriva il seme di un blocco mescolando il seme della simulazione con l'indice del blocco
+     * (funzione di mixing a 64 bit di SplitMix64), così che blocchi vicini abbiano flussi indipendenti.
+     */
+    static long chunkSeed(long seed, long chunk)
+    {
+        long z = seed + (chunk + 1) * GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
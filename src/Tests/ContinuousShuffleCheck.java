@@ -0,0 +1,136 @@
+package Tests;
+
+import Model.AiPlayer;
+import Model.BlackJackGame;
+import Model.Card;
+import Model.CountSystem;
+import Model.Deck;
+import Model.RoundEngine;
+import Model.TableRules;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// ContinuousShuffleCheck verifica che in modalità CSM le carte scartate riportino sempre lo shoe
+// alla composizione completa, anche quando lo shoe viene cambiato a metà round.
+public class ContinuousShuffleCheck
+{
+    private static final int NUM_DECKS = 6;
+    private static int failures = 0;
+
+    public static void main(String[] args)
+    {
+        checkRounds();
+        checkShoeChangedMidRound();
+
+        if (failures == 0)
+        {
+            System.out.println("Tutte le verifiche CSM sono riuscite.");
+        } else
+        {
+            System.err.println("Verifiche CSM fallite: " + failures);
+            System.exit(1);
+        }
+    }
+
+    // Gioca molti round con il motore e, dopo gli scarti di ogni round, controlla che lo shoe sia completo
+    private static void checkRounds()
+    {
+        BlackJackGame game = new BlackJackGame(TableRules.DEFAULT.withNumDecks(NUM_DECKS), new SplittableRandom(42));
+        game.initializeAiPlayers(3);
+        Deck deck = game.getDeck();
+        deck.setContinuousShuffle(true);
+        RoundEngine engine = new RoundEngine(game);
+        engine.setAiBet(10);
+
+        for (int round = 0; round < 10_000; round++)
+        {
+            for (AiPlayer aiPlayer : game.getAiPlayers())
+            {
+                aiPlayer.setChips(1_000_000);
+            }
+            engine.playRound(0, null);
+
+            // Gli stessi scarti che il motore fa all'inizio del round successivo
+            game.getDealer().clearHand(deck);
+            for (AiPlayer aiPlayer : game.getAiPlayers())
+            {
+                aiPlayer.clearHand(deck);
+            }
+            if (!checkFullShoe(deck, "dopo il round " + round))
+            {
+                return;
+            }
+        }
+        System.out.println("Round CSM: composizione e conteggi tornano completi dopo ogni round.");
+    }
+
+    // Riproduce uno shoe esaurito a metà round: le carte del vecchio shoe non devono entrare nel nuovo
+    private static void checkShoeChangedMidRound()
+    {
+        Deck deck = new Deck(NUM_DECKS, new SplittableRandom(7));
+        deck.setContinuousShuffle(true);
+        List<Card> inPlay = new ArrayList<>();
+        while (deck.cardsRemaining() > 3)
+        {
+            inPlay.add(deck.drawCard());
+        }
+        for (int i = 0; i < 10; i++)
+        {
+            inPlay.add(deck.drawCard()); // Esaurisce lo shoe e ne apre uno nuovo
+        }
+
+        for (Card card : inPlay)
+        {
+            deck.discard(card);
+            for (int points = 1; points <= 10; points++)
+            {
+                if (deck.getRankCount(points) > fullCount(points))
+                {
+                    fail("carte da " + points + " oltre lo shoe completo dopo lo scarto di " + card);
+                    return;
+                }
+            }
+        }
+        if (checkFullShoe(deck, "dopo il cambio di shoe a metà round"))
+        {
+            System.out.println("Cambio di shoe a metà round: le carte del vecchio shoe vengono ignorate.");
+        }
+    }
+
+    private static boolean checkFullShoe(Deck deck, String when)
+    {
+        if (deck.cardsRemaining() != NUM_DECKS * Card.DISTINCT_CARDS)
+        {
+            return fail("carte rimaste " + deck.cardsRemaining() + " " + when);
+        }
+        for (int points = 1; points <= 10; points++)
+        {
+            if (deck.getRankCount(points) != fullCount(points))
+            {
+                return fail("carte da " + points + ": " + deck.getRankCount(points) + " " + when);
+            }
+        }
+        for (CountSystem system : CountSystem.values())
+        {
+            if (deck.getRunningCount(system) != system.initialRunningCount(NUM_DECKS))
+            {
+                return fail("conteggio " + system + " " + deck.getRunningCount(system) + " " + when);
+            }
+        }
+        return true;
+    }
+
+    private static int fullCount(int points)
+    {
+        return points == 10 ? 16 * NUM_DECKS : 4 * NUM_DECKS;
+    }
+
+    private static boolean fail(String message)
+    {
+        System.err.println("Errore: " + message);
+        failures++;
+        return false;
+    }
+}
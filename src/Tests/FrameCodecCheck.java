@@ -0,0 +1,189 @@
+package Tests;
+
+import Model.Card;
+import Model.FrameDecoder;
+import Model.FrameEncoder;
+import Model.RoundEngine;
+import Model.Suit;
+import Model.TableListener;
+import Model.Value;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// FrameCodecCheck verifica che i frame del protocollo binario si decodifichino negli stessi eventi
+// da cui sono stati codificati e che i frame troncati o non validi vengano rifiutati senza inoltrare eventi.
+public class FrameCodecCheck
+{
+    private static int failures = 0;
+
+    public static void main(String[] args) throws IOException
+    {
+        checkRoundTrip();
+        checkRejected("frame troncato dopo un frame più lungo", concat(validFrame(), new byte[]{2, FrameEncoder.CARD_MAIN, 0}));
+        checkRejected("codice di carta inesistente", new byte[]{3, FrameEncoder.CARD_MAIN, 0, 0x0E});
+        checkRejected("fase inesistente", new byte[]{2, FrameEncoder.PHASE, 100});
+        checkRejected("fiches senza varint", new byte[]{2, FrameEncoder.CHIPS, 0});
+        checkRejected("varint delle fiches oltre 32 bit", new byte[]{7, FrameEncoder.CHIPS, 0, -1, -1, -1, -1, 0x7F});
+        checkRejected("messaggio più lungo del frame", new byte[]{4, FrameEncoder.ERROR, 10, 'a', 'b'});
+        checkRejected("operazione sconosciuta", new byte[]{1, 99});
+        checkRejected("lunghezza con il bit 31", new byte[]{-1, -1, -1, -1, 0x0F});
+        checkRejected("lunghezza oltre il massimo", new byte[]{-128, -128, 64});
+        checkRejected("stream terminato a metà frame", new byte[]{5, FrameEncoder.PHASE, 0});
+
+        if (failures == 0)
+        {
+            System.out.println("Tutte le verifiche del protocollo binario sono riuscite.");
+        } else
+        {
+            System.err.println("Verifiche del protocollo binario fallite: " + failures);
+            System.exit(1);
+        }
+    }
+
+    // Codifica un evento di ogni tipo e controlla che la decodifica li restituisca tutti, nello stesso ordine
+    private static void checkRoundTrip() throws IOException
+    {
+        FrameEncoder encoder = new FrameEncoder();
+        Recorder expected = new Recorder();
+        for (RoundEngine.Phase phase : RoundEngine.Phase.values())
+        {
+            encoder.phaseChanged(phase);
+            expected.phaseChanged(phase);
+        }
+        for (Suit suit : Suit.values())
+        {
+            for (Value value : Value.values())
+            {
+                Card card = Card.of(suit, value);
+                encoder.cardDealt(0, false, card);
+                expected.cardDealt(0, false, card);
+                encoder.cardDealt(TableListener.DEALER_SEAT, true, card);
+                expected.cardDealt(TableListener.DEALER_SEAT, true, card);
+            }
+        }
+        encoder.handSplit(3);
+        expected.handSplit(3);
+        for (int delta : new int[]{0, 1, -1, 63, -64, 1_000_000, Integer.MAX_VALUE, Integer.MIN_VALUE})
+        {
+            encoder.chipsChanged(2, delta);
+            expected.chipsChanged(2, delta);
+        }
+        encoder.error("Scommessa non valida: è troppo alta");
+        expected.error("Scommessa non valida: è troppo alta");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        encoder.writeTo(out);
+        Recorder decoded = new Recorder();
+        FrameDecoder decoder = new FrameDecoder(decoded);
+        ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+        boolean read = decoder.read(in);
+        if (!read || !decoded.events.equals(expected.events) || decoder.read(in))
+        {
+            fail("andata e ritorno: attesi " + expected.events.size() + " eventi, decodificati " + decoded.events);
+        } else
+        {
+            System.out.println("Andata e ritorno: " + expected.events.size() + " eventi identici.");
+        }
+    }
+
+    // Il primo frame valido, se presente, viene decodificato; quello non valido deve dare IOException senza eventi
+    private static void checkRejected(String name, byte[] stream)
+    {
+        Recorder recorder = new Recorder();
+        FrameDecoder decoder = new FrameDecoder(recorder);
+        ByteArrayInputStream in = new ByteArrayInputStream(stream);
+        int validEvents = 0;
+        try
+        {
+            while (decoder.read(in))
+            {
+                validEvents = recorder.events.size();
+            }
+            fail(name + ": frame accettato, eventi " + recorder.events);
+        } catch (IOException | RuntimeException e)
+        {
+            if (!(e instanceof IOException))
+            {
+                fail(name + ": eccezione inattesa " + e);
+            } else if (recorder.events.size() != validEvents)
+            {
+                fail(name + ": eventi inoltrati prima dell'errore " + recorder.events.subList(validEvents, recorder.events.size()));
+            } else
+            {
+                System.out.println("Rifiutato (" + name + "): " + e.getMessage());
+            }
+        }
+    }
+
+    // Un frame valido più lungo di quello troncato, così che il buffer del decodificatore contenga byte vecchi
+    private static byte[] validFrame() throws IOException
+    {
+        FrameEncoder encoder = new FrameEncoder();
+        encoder.cardDealt(0, false, Card.of(Suit.SPADES, Value.TWO));
+        encoder.cardDealt(1, false, Card.of(Suit.HEARTS, Value.ACE));
+        encoder.phaseChanged(RoundEngine.Phase.PLAYER_TURN);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        encoder.writeTo(out);
+        return out.toByteArray();
+    }
+
+    private static byte[] concat(byte[] first, byte[] second)
+    {
+        byte[] result = new byte[first.length + second.length];
+        System.arraycopy(first, 0, result, 0, first.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    private static void fail(String message)
+    {
+        System.err.println("Errore: " + message);
+        failures++;
+    }
+
+    // Registra gli eventi ricevuti come testo, per confrontarli
+    private static class Recorder implements FrameDecoder.Handler
+    {
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void cardDealt(int seat, boolean splitHand, Card card)
+        {
+            events.add("card " + seat + " " + splitHand + " " + card);
+        }
+
+        @Override
+        public void handSplit(int seat)
+        {
+            events.add("split " + seat);
+        }
+
+        @Override
+        public void chipsChanged(int seat, int delta)
+        {
+            events.add("chips " + seat + " " + delta);
+        }
+
+        @Override
+        public void phaseChanged(RoundEngine.Phase phase)
+        {
+            events.add("phase " + phase);
+        }
+
+        @Override
+        public void optionsChanged(int mask)
+        {
+            events.add("options " + mask);
+        }
+
+        @Override
+        public void error(String message)
+        {
+            events.add("error " + message);
+        }
+    }
+}
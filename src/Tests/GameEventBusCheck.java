@@ -0,0 +1,165 @@
+package Tests;
+
+import Model.GameEvent;
+import Model.GameEventBus;
+import Model.GameListener;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+// GameEventBusCheck verifica le tre modalità di consegna del registro degli eventi:
+// sincrona, asincrona e a lotti, con gli eventi ripetuti consegnati una sola volta a ogni flush.
+public class GameEventBusCheck
+{
+    private static int failures = 0;
+
+    public static void main(String[] args)
+    {
+        checkSync();
+        checkAsync();
+        checkBatched();
+        checkBatchedWithExecutor();
+        checkUnsubscribe();
+
+        if (failures == 0)
+        {
+            System.out.println("Tutte le verifiche del registro degli eventi sono riuscite.");
+        } else
+        {
+            System.err.println("Verifiche del registro degli eventi fallite: " + failures);
+            System.exit(1);
+        }
+    }
+
+    // La consegna sincrona avviene subito e solo per gli eventi registrati
+    private static void checkSync()
+    {
+        GameEventBus bus = new GameEventBus();
+        Recorder recorder = new Recorder();
+        bus.subscribe(recorder, EnumSet.of(GameEvent.CARDS_DEALT, GameEvent.CHIPS_UPDATED));
+        bus.publish(GameEvent.CHIPS_UPDATED);
+        bus.publish(GameEvent.DEALER_TURN);
+        bus.publish(GameEvent.CHIPS_UPDATED);
+        expect("sincrona", recorder.events, List.of("CHIPS_UPDATED", "CHIPS_UPDATED"));
+        if (bus.hasListeners(GameEvent.DEALER_TURN) || !bus.hasListeners(GameEvent.CARDS_DEALT))
+        {
+            fail("sincrona: interessi del registro errati");
+        }
+    }
+
+    // La consegna asincrona passa dall'esecutore e non avviene prima che questo esegua i compiti
+    private static void checkAsync()
+    {
+        GameEventBus bus = new GameEventBus();
+        Recorder recorder = new Recorder();
+        List<Runnable> queue = new ArrayList<>();
+        bus.subscribe(recorder, EnumSet.allOf(GameEvent.class), queue::add);
+        bus.publish(GameEvent.CARDS_DEALT);
+        bus.publish(GameEvent.DEALER_TURN);
+        expect("asincrona prima dell'esecutore", recorder.events, List.of());
+        runAll(queue);
+        expect("asincrona", recorder.events, List.of("CARDS_DEALT", "DEALER_TURN"));
+    }
+
+    // La consegna a lotti avviene solo a flush(), una volta per evento, nell'ordine delle costanti
+    private static void checkBatched()
+    {
+        GameEventBus bus = new GameEventBus();
+        Recorder recorder = new Recorder();
+        bus.subscribeBatched(recorder, EnumSet.allOf(GameEvent.class));
+        bus.publish(GameEvent.CHIPS_UPDATED);
+        bus.publish(GameEvent.DEALER_TURN);
+        bus.publish(GameEvent.CHIPS_UPDATED);
+        bus.publish(GameEvent.AI_BETS_PLACED);
+        expect("a lotti prima di flush", recorder.events, List.of());
+        bus.flush();
+        expect("a lotti", recorder.events, List.of("AI_BETS_PLACED", "DEALER_TURN", "CHIPS_UPDATED", "fine"));
+        bus.flush();
+        expect("a lotti, flush senza eventi", recorder.events, List.of("AI_BETS_PLACED", "DEALER_TURN", "CHIPS_UPDATED", "fine"));
+    }
+
+    // Con un esecutore, il primo evento di ogni lotto programma un solo flush()
+    private static void checkBatchedWithExecutor()
+    {
+        GameEventBus bus = new GameEventBus();
+        Recorder recorder = new Recorder();
+        List<Runnable> queue = new ArrayList<>();
+        bus.subscribeBatched(recorder, EnumSet.allOf(GameEvent.class), queue::add);
+        bus.publish(GameEvent.CARDS_DEALT);
+        bus.publish(GameEvent.CHIPS_UPDATED);
+        bus.publish(GameEvent.CARDS_DEALT);
+        if (queue.size() != 1)
+        {
+            fail("a lotti con esecutore: flush programmati " + queue.size() + " invece di 1");
+        }
+        runAll(queue);
+        expect("a lotti con esecutore", recorder.events, List.of("CARDS_DEALT", "CHIPS_UPDATED", "fine"));
+
+        bus.publish(GameEvent.DEALER_TURN);
+        if (queue.size() != 1)
+        {
+            fail("a lotti con esecutore: nessun flush programmato per il lotto successivo");
+        }
+        runAll(queue);
+        expect("a lotti con esecutore, secondo lotto", recorder.events,
+                List.of("CARDS_DEALT", "CHIPS_UPDATED", "fine", "DEALER_TURN", "fine"));
+    }
+
+    // Un listener rimosso non riceve più nulla e il registro non ne conserva gli interessi
+    private static void checkUnsubscribe()
+    {
+        GameEventBus bus = new GameEventBus();
+        Recorder recorder = new Recorder();
+        bus.subscribe(recorder, EnumSet.of(GameEvent.CARDS_DEALT));
+        bus.unsubscribe(recorder);
+        bus.publish(GameEvent.CARDS_DEALT);
+        expect("rimozione", recorder.events, List.of());
+        if (bus.hasListeners(GameEvent.CARDS_DEALT))
+        {
+            fail("rimozione: interessi rimasti nel registro");
+        }
+    }
+
+    private static void runAll(List<Runnable> queue)
+    {
+        List<Runnable> tasks = new ArrayList<>(queue);
+        queue.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    private static void expect(String name, List<String> actual, List<String> expected)
+    {
+        if (!actual.equals(expected))
+        {
+            fail(name + ": attesi " + expected + ", ricevuti " + actual);
+        } else
+        {
+            System.out.println("Consegna " + name + ": " + actual);
+        }
+    }
+
+    private static void fail(String message)
+    {
+        System.err.println("Errore: " + message);
+        failures++;
+    }
+
+    // Registra gli eventi ricevuti e la fine di ogni lotto
+    private static class Recorder implements GameListener
+    {
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void onGameEvent(GameEvent event)
+        {
+            events.add(event.name());
+        }
+
+        @Override
+        public void onBatchDelivered()
+        {
+            events.add("fine");
+        }
+    }
+}
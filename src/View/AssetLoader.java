@@ -0,0 +1,145 @@
+package View;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caricatore asincrono delle risorse del gioco.
+ * Alla creazione avvia in parallelo, su un pool di thread in background, la decodifica delle carte,
+ * dell'immagine di sfondo e dei suoni, così che la finestra di benvenuto possa essere mostrata subito.
+ * Ogni risorsa è un {@link CompletableFuture}: si resta in attesa solo quando una risorsa serve
+ * per la prima volta e non è ancora pronta. Le risorse vengono lette tramite {@link Resources}.
+ */
+public class AssetLoader implements AutoCloseable
+{
+    public static final String BACKGROUND_IMAGE = "Images/BackGroundImage.jpeg";
+    public static final String ICON_IMAGE = "Images/BlackJackIcon.jpg";
+    public static final String BACKGROUND_MUSIC = "Music/BackGroundMusic.wav";
+    public static final String GAME_OVER_SOUND = "Music/gameOverSound.wav";
+
+    private final Resources resources;
+    private final ExecutorService executor;
+    private final CompletableFuture<CardImage> cardImages;
+    private final CompletableFuture<Image> backgroundImage;
+    private final Map<String, CompletableFuture<byte[]>> sounds = new ConcurrentHashMap<>();
+
+    /**
+     * Crea il caricatore sulle risorse predefinite e avvia subito il caricamento di carte, sfondo e suoni.
+     */
+    public AssetLoader()
+    {
+        this(Resources.open());
+    }
+
+    /**
+     * Crea il caricatore e avvia subito il caricamento di carte, sfondo e suoni.
+     *
+     * @param resources Le risorse da cui leggere.
+     */
+    public AssetLoader(Resources resources)
+    {
+        this.resources = resources;
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.min(4, Runtime.getRuntime().availableProcessors()), task -> {
+            Thread thread = new Thread(task, "asset-loader-" + threadCount.incrementAndGet());
+            thread.setDaemon(true); // Il caricamento non impedisce la chiusura dell'applicazione
+            return thread;
+        });
+        cardImages = CompletableFuture.supplyAsync(() -> new CardImage(resources), executor);
+        backgroundImage = CompletableFuture.supplyAsync(() -> readImage(BACKGROUND_IMAGE), executor);
+        loadSound(BACKGROUND_MUSIC);
+        loadSound(GAME_OVER_SOUND);
+    }
+
+    /**
+     * @return Le immagini delle carte, attendendo la fine del caricamento se necessario.
+     */
+    public CardImage getCardImages()
+    {
+        return cardImages.join();
+    }
+
+    /**
+     * @return Il caricamento dell'immagine di sfondo, che vale {@code null} se l'immagine non è leggibile.
+     */
+    public CompletableFuture<Image> getBackgroundImage()
+    {
+        return backgroundImage;
+    }
+
+    /**
+     * Avvia, se non è già avviato, il caricamento in memoria di un file audio.
+     *
+     * @param name Il nome della risorsa audio.
+     * @return Il caricamento del contenuto del file, che vale {@code null} se il file non è leggibile.
+     */
+    public CompletableFuture<byte[]> loadSound(String name)
+    {
+        return sounds.computeIfAbsent(name, key -> CompletableFuture.supplyAsync(() -> readBytes(key), executor));
+    }
+
+    /**
+     * Legge subito un'immagine piccola, come l'icona della finestra.
+     *
+     * @param name Il nome della risorsa.
+     * @return L'immagine, oppure {@code null} se non è leggibile.
+     */
+    public Image readImageNow(String name)
+    {
+        return readImage(name);
+    }
+
+    public Resources getResources()
+    {
+        return resources;
+    }
+
+    /**
+     * @return I nomi delle risorse lette dal caricatore, oltre alle carte.
+     */
+    static List<String> resourceNames()
+    {
+        return List.of(BACKGROUND_IMAGE, ICON_IMAGE, BACKGROUND_MUSIC, GAME_OVER_SOUND);
+    }
+
+    /**
+     * Interrompe i caricamenti non ancora iniziati.
+     */
+    @Override
+    public void close()
+    {
+        executor.shutdownNow();
+    }
+
+    private Image readImage(String name)
+    {
+        try
+        {
+            return ImageIO.read(resources.openStream(name));
+        } catch (IOException e)
+        {
+            System.out.println("Impossibile caricare l'immagine: " + name);
+            return null;
+        }
+    }
+
+    private byte[] readBytes(String name)
+    {
+        try
+        {
+            return resources.read(name);
+        } catch (IOException e)
+        {
+            System.out.println("Impossibile caricare il suono: " + name);
+            return null;
+        }
+    }
+}
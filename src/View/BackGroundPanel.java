@@ -1,27 +1,36 @@
 package View;
 import javax.swing.*;
 import java.awt.*;
+import java.util.concurrent.CompletableFuture;
 
 public class BackGroundPanel extends JPanel
 {
     private Image backgroundImage;
+    private CompletableFuture<Image> pendingImage; // Immagine ancora in caricamento, disegnata quando è pronta
 
-    public BackGroundPanel(String filePath)
+    /**
+     * @param image Il caricamento dell'immagine di sfondo, ad esempio {@link AssetLoader#getBackgroundImage()}.
+     */
+    public BackGroundPanel(CompletableFuture<Image> image)
     {
-        try
-        {
-            backgroundImage = new ImageIcon(filePath).getImage();
-        } catch (Exception e)
-        {
-            System.out.println("Impossibile caricare l'immagine: " + filePath);
-            e.printStackTrace();
-        }
+        pendingImage = image;
+        // Ridisegna il pannello appena l'immagine è pronta, se nel frattempo è già visibile
+        image.thenRun(() -> SwingUtilities.invokeLater(this::repaint));
     }
 
     @Override
     protected void paintComponent(Graphics g)
     {
         super.paintComponent(g);
+        if (pendingImage != null)
+        {
+            if (!pendingImage.isDone())
+            {
+                return; // Il pannello viene ridisegnato quando il caricamento finisce
+            }
+            backgroundImage = pendingImage.getNow(null);
+            pendingImage = null;
+        }
         if (backgroundImage != null)
         {
             g.drawImage(backgroundImage, 0, 0, this.getWidth(), this.getHeight(), this);
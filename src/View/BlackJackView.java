@@ -10,20 +10,19 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.List;
-import java.util.Observable;
-import java.util.Observer;
 
 // Classe che gestisce l'interfaccia grafica del gioco di Blackjack.
-//Estende {@link JFrame} per la gestione della GUI e implementa {@link Observer}
-//per aggiornare la vista in base ai cambiamenti del modello {@link Model.BlackJackGame}.
+//Estende {@link JFrame} per la gestione della GUI; viene aggiornata dal controller
+//in base agli eventi del modello {@link Model.BlackJackGame}.
 
-public class BlackJackView extends JFrame implements Observer
+public class BlackJackView extends JFrame
 {
     // ==========================
     // Constants
     // ==========================
     private static final int CARD_WIDTH = 120;
     private static final int CARD_HEIGHT = 160;
+    private static final int RESERVED_CARDS = 5; // Carte per cui ogni mano riserva lo spazio
     private static final int FRAME_WIDTH = 1200;
     private static final int FRAME_HEIGHT = 800;
 
@@ -66,16 +65,25 @@ public class BlackJackView extends JFrame implements Observer
     public JButton splitButton; // Public to enable access
     private JButton doubleDownButton;
     private JButton restartButton;
+    private JButton hintButton;
+    private JLabel hintLabel; // Consiglio sulla mossa migliore
     private JTextField betAmountField;
 
     private JPanel[] aiPlayerPanels;
     private JLabel[] aiPlayerScoreLabels;
+
+    // Mani mostrate nei pannelli, aggiornate una carta alla volta
+    private HandPanel playerHand;
+    private HandPanel splitHand;
+    private HandPanel dealerHand;
+    private HandPanel[] aiPlayerHands;
     private JLabel[] aiPlayerChipsLabels;
 
     // ==========================
     // Dependencies
     // ==========================
-    private CardImage cardImageManager;
+    private final AssetLoader assets;
+    private CardImage cardImageManager; // Ottenuto dal caricatore al primo utilizzo
 
     // ==========================
     // Constructor
@@ -85,8 +93,13 @@ public class BlackJackView extends JFrame implements Observer
 
     public BlackJackView()
     {
+        this(new AssetLoader());
+    }
+
+    public BlackJackView(AssetLoader assets)
+    {
+        this.assets = assets; // Le immagini vengono caricate in background mentre si mostra la schermata di benvenuto
         setUpFrame(); // Set up the frame
-        cardImageManager = new CardImage(); // Initialize card image manager
         setupWelcomeScreen(); // Set up the welcome screen
         initalizeGameComponents(); // Initialize game components
         initalizeGameScreenComponents(); // Initialize game screen components
@@ -98,6 +111,7 @@ public class BlackJackView extends JFrame implements Observer
         doubleDownButton.setVisible(false);
         standButton.setVisible(false);
         splitButton.setVisible(false);
+        hintButton.setVisible(false);
     }
 
     //Mi serve un metodo che mette tutti i pannelli setVisible(false)
@@ -106,7 +120,8 @@ public class BlackJackView extends JFrame implements Observer
         Component[] components = {
                 playerPanel, dealerPanel, splitPanel, playerScoreLabel, dealerScoreLabel, splitScoreLabel,
                 chipsLabel, messageLabel, levelLabel, gamesPlayedLabel, gamesWonLabel, gamesTiedLabel,
-                gamesLostLabel, hitButton, doubleDownButton, standButton, splitButton, restartButton
+                gamesLostLabel, hitButton, doubleDownButton, standButton, splitButton, restartButton,
+                hintButton, hintLabel
         };
 
         for (Component comp : components)
@@ -128,13 +143,15 @@ public class BlackJackView extends JFrame implements Observer
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setResizable(false);
         setLocationRelativeTo(null);
-        Image icon = new ImageIcon(getClass().getResource("/Images/BlackJackIcon.jpg")).getImage();
-        setIconImage(icon);
+        Image icon = assets.readImageNow(AssetLoader.ICON_IMAGE);
+        if (icon != null)
+        {
+            setIconImage(icon);
+        }
     }
 
     private void setupWelcomeScreen()
     {
-        cardImageManager = new CardImage();
         // Initialize welcome screen
         welcomePanel = new JPanel(new GridBagLayout());
         welcomePanel.setBackground(new Color(0, 128, 0));
@@ -220,6 +237,8 @@ public class BlackJackView extends JFrame implements Observer
         doubleDownButton = new JButton("Raddoppia");
         standButton = new JButton("Stare");
         splitButton = new JButton("Split");
+        hintButton = new JButton("Consiglio");
+        hintLabel = new JLabel("");
 
         restartButton = new JButton("Restart Game");
         restartButton.setFont(new Font("Arial", Font.BOLD, 16));
@@ -241,6 +260,20 @@ public class BlackJackView extends JFrame implements Observer
             aiPlayerScoreLabels[i] = new JLabel("AI Player " + (i + 1) + ": 0");
         }
 
+        // Ogni pannello contiene una sola mano, creata una volta e poi aggiornata carta per carta
+        playerHand = new HandPanel(this::cards, CARD_WIDTH, CARD_HEIGHT, new OverlapLayout(120), RESERVED_CARDS);
+        playerPanel.add(playerHand);
+        splitHand = new HandPanel(this::cards, CARD_WIDTH, CARD_HEIGHT, new OverlapLayout(120), RESERVED_CARDS);
+        splitPanel.add(splitHand);
+        dealerHand = new HandPanel(this::cards, CARD_WIDTH, CARD_HEIGHT, new FlowLayout(FlowLayout.LEFT, 10, 0), RESERVED_CARDS);
+        dealerPanel.add(dealerHand);
+        aiPlayerHands = new HandPanel[aiPlayerPanels.length];
+        for (int i = 0; i < aiPlayerPanels.length; i++)
+        {
+            aiPlayerHands[i] = new HandPanel(this::cards, CARD_WIDTH, CARD_HEIGHT, new OverlapLayout(120), RESERVED_CARDS);
+            aiPlayerPanels[i].add(aiPlayerHands[i]);
+        }
+
         aiPlayerChipsLabels = new JLabel[3];
         for (int i = 0; i < 3; i++)
         {
@@ -249,7 +282,7 @@ public class BlackJackView extends JFrame implements Observer
         }
 
         // Initialize mainPanel in the constructor
-        mainPanel = new BackGroundPanel("src/Images/BackGroundImage.jpeg");
+        mainPanel = new BackGroundPanel(assets.getBackgroundImage());
         mainPanel.setLayout(new BorderLayout());
 
 
@@ -279,7 +312,7 @@ public class BlackJackView extends JFrame implements Observer
         // Initially hide game screen components
         setVisibility(false, playerPanel, dealerPanel, splitPanel, playerScoreLabel, dealerScoreLabel, splitScoreLabel,
                 chipsLabel, messageLabel, levelLabel, gamesPlayedLabel, gamesWonLabel, gamesTiedLabel, gamesLostLabel,
-                hitButton, doubleDownButton, standButton, splitButton, restartButton);
+                hitButton, doubleDownButton, standButton, splitButton, restartButton, hintButton, hintLabel);
 
         for (int i = 0; i < 3; i++)
         {
@@ -336,24 +369,8 @@ public class BlackJackView extends JFrame implements Observer
     {
         // Mostra immediatamente le prime 2 carte
         SwingUtilities.invokeLater(() -> {
-            JPanel cardPanel = new JPanel(new OverlapLayout(120)); // Layout sovrapposto per le carte
-            cardPanel.setOpaque(false);
-
             // Mostra subito le prime 2 carte
-            for (int i = 0; i < Math.min(2, aiPlayerCards.size()); i++)
-            {
-                Card card = aiPlayerCards.get(i);
-                String value = card.getCardValueType().name();
-                String suit = card.getSuit().name();
-                ImageIcon cardImage = resizeCardImage(cardImageManager.getCardImage(value, suit));
-                cardPanel.add(new JLabel(cardImage));
-            }
-
-            // Aggiorna graficamente il pannello con le prime 2 carte
-            aiPlayerPanels[aiPlayerIndex].removeAll();
-            aiPlayerPanels[aiPlayerIndex].add(cardPanel);
-            aiPlayerPanels[aiPlayerIndex].revalidate();
-            aiPlayerPanels[aiPlayerIndex].repaint();
+            aiPlayerHands[aiPlayerIndex].showCards(aiPlayerCards.subList(0, Math.min(2, aiPlayerCards.size())));
 
             // Mostra il punteggio parziale per le prime 2 carte
             boolean hasAce = aiPlayerCards.subList(0, 2).stream().anyMatch(card -> card.getCardValueType() == Value.ACE);
@@ -384,24 +401,8 @@ public class BlackJackView extends JFrame implements Observer
             { // Aggiunge le carte oltre le prime 2
                 final int currentCardIndex = i;
                 SwingUtilities.invokeLater(() -> {
-                    JPanel cardPanel = new JPanel(new OverlapLayout(120));
-                    cardPanel.setOpaque(false);
-
-                    // Ricostruisce l'intera mano fino alla carta corrente
-                    for (int j = 0; j <= currentCardIndex; j++)
-                    {
-                        Card card = aiPlayerCards.get(j);
-                        String value = card.getCardValueType().name();
-                        String suit = card.getSuit().name();
-                        ImageIcon cardImage = resizeCardImage(cardImageManager.getCardImage(value, suit));
-                        cardPanel.add(new JLabel(cardImage));
-                    }
-
-                    // Reimposta il pannello man mano che si aggiungono le carte
-                    aiPlayerPanels[aiPlayerIndex].removeAll();
-                    aiPlayerPanels[aiPlayerIndex].add(cardPanel);
-                    aiPlayerPanels[aiPlayerIndex].revalidate();
-                    aiPlayerPanels[aiPlayerIndex].repaint();
+                    // Aggiunge alla mano solo la carta corrente
+                    aiPlayerHands[aiPlayerIndex].showCards(aiPlayerCards.subList(0, currentCardIndex + 1));
 
                     // Aggiorna il punteggio ad ogni carta aggiunta
                     boolean hasAce = aiPlayerCards.stream().anyMatch(card -> card.getCardValueType() == Value.ACE);
@@ -453,12 +454,11 @@ public class BlackJackView extends JFrame implements Observer
     }
 
     // Metodo per aggiornare e mostrare le informazioni di gioco dopo che la scommessa è stata piazzata
-    public void showGameInfo(int chips)
+    public void showGameInfo()
     {
         dealerScoreLabel.setText("Punteggio Dealer: ");
         playerScoreLabel.setText("First Hand: ");
         splitScoreLabel.setText("Second Hand: ");
-        chipsLabel.setText("Fiches: " + chips);
         hitButton.setVisible(true);
         doubleDownButton.setVisible(true);
         standButton.setVisible(true);
@@ -588,13 +588,15 @@ public class BlackJackView extends JFrame implements Observer
         buttonPanel.add(standButton);
         buttonPanel.add(splitButton);
         buttonPanel.add(doubleDownButton);
+        buttonPanel.add(hintButton);
+        buttonPanel.add(hintLabel);
         add(mainPanel, BorderLayout.CENTER);
         add(buttonPanel, BorderLayout.SOUTH);
 
         // Set visibility for all components
         setVisibility(true, playerPanel, dealerPanel, splitPanel, playerScoreLabel, dealerScoreLabel, splitScoreLabel,
                 chipsLabel, messageLabel, levelLabel, gamesPlayedLabel, gamesWonLabel, gamesTiedLabel, gamesLostLabel,
-                hitButton, doubleDownButton, standButton, splitButton, restartButton);
+                hitButton, doubleDownButton, standButton, splitButton, restartButton, hintButton, hintLabel);
 
         for (int i = 0; i < aiPlayerPanels.length; i++)
         {
@@ -631,6 +633,24 @@ public class BlackJackView extends JFrame implements Observer
         }
     }
 
+    public void updateAIChips(int[] aiChips)
+    {
+        for (int i = 0; i < aiChips.length; i++)
+        {
+            aiPlayerChipsLabels[i].setText("AI Player " + (i + 1) + " Fiches: " + aiChips[i]);
+        }
+    }
+
+    public void updateAIChipsBet(int[] aiBets)
+    {
+        JLabel[] aiBetsLabels = {AIPlayer1ChipsBet, AIPlayer2ChipsBet, AIPlayer3ChipsBet};
+
+        for (int i = 0; i < aiBets.length; i++)
+        {
+            aiBetsLabels[i].setText("AI" + (i + 1) + " Fiches scommesse: " + aiBets[i]);
+        }
+    }
+
     public void updateAIChipsBet(List<AiPlayer> aiPlayers)
     {
         JLabel[] aiBetsLabels = {AIPlayer1ChipsBet, AIPlayer2ChipsBet, AIPlayer3ChipsBet};
@@ -725,6 +745,8 @@ public class BlackJackView extends JFrame implements Observer
         doubleDownButton.setEnabled(false);
         standButton.setEnabled(false);
         splitButton.setEnabled(false);
+        hintButton.setEnabled(false);
+        hintLabel.setText("");
     }
 
     public void enableGameControls()
@@ -733,50 +755,32 @@ public class BlackJackView extends JFrame implements Observer
         doubleDownButton.setEnabled(true);
         standButton.setEnabled(true);
         splitButton.setEnabled(true);
+        hintButton.setEnabled(true);
     }
 
     public void clearSplitHand()
     {
-        splitPanel.removeAll();
-        splitPanel.revalidate();
-        splitPanel.repaint();
+        splitHand.clear();
     }
     public void updateDealerHand(List<Card> dealerCards, boolean showAll)
     {
-        dealerPanel.removeAll();
+        dealerHand.showCards(dealerCards, showAll ? HandPanel.NO_HIDDEN_CARD : 1); // Seconda carta nascosta
         int visibleScore = 0;
 
         for (int i = 0; i < dealerCards.size(); i++)
         {
-            Card card = dealerCards.get(i);
-            ImageIcon cardImage = (i == 1 && !showAll)
-                    ? resizeCardImage(cardImageManager.getBackImage()) // Seconda carta nascosta
-                    : resizeCardImage(cardImageManager.getCardImage(card.getCardValueType().name(), card.getSuit().name()));
-
-            dealerPanel.add(new JLabel(cardImage));
             if (showAll || i != 1)
             {
-                visibleScore += card.getCardValueType().getValue();
+                visibleScore += dealerCards.get(i).getCardValueType().getValue();
             }
         }
 
         updateDealerScore(visibleScore, visibleScore);
-        dealerPanel.revalidate();
-        dealerPanel.repaint();
     }
 
     public void revealDealerHand(List<Card> dealerCards)
     {
-        dealerPanel.removeAll();
-        for (Card card : dealerCards)
-        {
-            String value = card.getCardValueType().name();
-            String suit = card.getSuit().name();
-            ImageIcon cardImage = resizeCardImage(cardImageManager.getCardImage(value, suit));
-            dealerPanel.add(new JLabel(cardImage));
-        }
-        dealerPanel.revalidate();
-        dealerPanel.repaint();
+        dealerHand.showCards(dealerCards); // Gira solo la carta coperta e aggiunge quelle nuove
     }
 
     // Metodi per i listener dei pulsanti
@@ -795,11 +799,29 @@ public class BlackJackView extends JFrame implements Observer
         splitButton.addActionListener(listener);
     }
 
-    private ImageIcon resizeCardImage(ImageIcon originalIcon)
+    public void addHintListener(ActionListener listener)
     {
-        Image image = originalIcon.getImage();
-        Image scaledImage = image.getScaledInstance(CARD_WIDTH, CARD_HEIGHT, Image.SCALE_SMOOTH);
-        return new ImageIcon(scaledImage);
+        hintButton.addActionListener(listener);
+    }
+
+    public AssetLoader getAssets()
+    {
+        return assets;
+    }
+
+    // Restituisce le immagini delle carte, attendendo il caricamento solo la prima volta che servono
+    private CardImage cards()
+    {
+        if (cardImageManager == null)
+        {
+            cardImageManager = assets.getCardImages();
+        }
+        return cardImageManager;
+    }
+
+    public void showHint(String hint)
+    {
+        hintLabel.setText(hint);
     }
 
     public void showScoreLabels(boolean visible)
@@ -867,41 +889,14 @@ public class BlackJackView extends JFrame implements Observer
 
     public void updatePlayerHand(List<Card> playerCards, int[] playerScores)
     {
-        playerPanel.removeAll();
-        JPanel cardPanel = new JPanel(new OverlapLayout(120)); // Adjust the overlap value here
-        cardPanel.setOpaque(false);
-        for (Card card : playerCards)
-        {
-            String value = card.getCardValueType().name();
-            String suit = card.getSuit().name();
-            ImageIcon cardImage = resizeCardImage(cardImageManager.getCardImage(value, suit));
-            cardPanel.add(new JLabel(cardImage));
-        }
-        playerPanel.add(cardPanel);
+        playerHand.showCards(playerCards);
         updatePlayerScore(playerScores[0], playerScores.length > 1 ? playerScores[1] : playerScores[0]);
-        playerPanel.revalidate();
-        playerPanel.repaint();
     }
 
     public void updateSplitHand(List<Card> splitCards, int[] splitScores)
     {
-        splitPanel.removeAll();
-
-        // Crea e aggiungi carte al pannello split
-        JPanel cardPanel = new JPanel(new OverlapLayout(120));
-        cardPanel.setOpaque(false);
-        for (Card card : splitCards)
-        {
-            String value = card.getCardValueType().name();
-            String suit = card.getSuit().name();
-            ImageIcon cardImage = resizeCardImage(cardImageManager.getCardImage(value, suit));
-            cardPanel.add(new JLabel(cardImage));
-        }
-
-        splitPanel.add(cardPanel);
+        splitHand.showCards(splitCards);
         updateSplitScore(splitScores[0], splitScores.length > 1 ? splitScores[1] : splitScores[0]);
-        splitPanel.revalidate();
-        splitPanel.repaint();
     }
 
     public JComboBox<Integer> getNumAIPlayersComboBox()
@@ -1064,10 +1059,4 @@ public class BlackJackView extends JFrame implements Observer
         splitScoreLabel.setVisible(false);
         clearSplitHand();
     }
-
-    @Override
-    public void update(Observable o, Object arg)
-    {
-        // Update the view based on the model changes
-    }
 }
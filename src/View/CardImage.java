@@ -1,51 +1,262 @@
 package View;
 
+import Model.Card;
+import Model.Suit;
+import Model.Value;
+
+import javax.imageio.ImageIO;
 import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 
 public class CardImage
 {
     private Map<String, ImageIcon> cardImages; // Mappa per memorizzare le immagini delle carte
+    private final ImageIcon[] imagesByOrdinal = new ImageIcon[Card.DISTINCT_CARDS]; // Immagini indicizzate per carta canonica
     private ImageIcon backImage; // Immagine del retro della carta
-    // Percorso assoluto delle immagini nel tuo progetto
-    private static final String IMAGE_PATH = "src/Images/";
+    // Immagini già ridimensionate, per dimensione (larghezza << 16 | altezza) e ordinale della carta;
+    // l'ultima posizione di ogni array è il retro
+    private final Map<Integer, ImageIcon[]> scaledImages = new HashMap<>();
+    private final Resources resources; // Origine delle immagini
+    // Nome delle immagini tra le risorse del gioco
+    private static final String IMAGE_PATH = "Images/";
+    // Cartella in cui salvare l'atlante generato, se esiste (durante lo sviluppo)
+    private static final Path ATLAS_DIRECTORY = Path.of("src", "Images");
+
+    // Atlante delle carte: un'unica immagine con tutte le carte (il retro nell'ultima cella) e il suo indice.
+    // Viene generato al primo avvio dalle singole immagini e salvato solo se nessuna immagine manca;
+    // viene rigenerato quando una delle singole immagini è più recente dell'indice
+    private static final String ATLAS_IMAGE_NAME = "CardAtlas.png";
+    private static final String ATLAS_INDEX_NAME = "CardAtlas.properties";
+    private static final String BACK_IMAGE_NAME = "BACK.png";
+    private static final int ATLAS_VERSION = 1;
+    private static final int ATLAS_COLUMNS = Value.values().length;
+    // Dimensione di una cella: metà delle immagini originali, sempre più del doppio della carta mostrata
+    private static final int CELL_WIDTH = 250;
+    private static final int CELL_HEIGHT = 363;
+    private static final int BACK_CELL = Card.DISTINCT_CARDS;
 
     public CardImage()
     {
+        this(Resources.open());
+    }
+
+    public CardImage(Resources resources)
+    {
+        this.resources = resources;
         cardImages = new HashMap<>();
         loadCardImages(); // Carica tutte le immagini all'avvio
     }
 
-    // Metodo per caricare tutte le immagini
+    // Metodo per caricare tutte le immagini: una sola decodifica dell'atlante, oppure
+    // le singole immagini al primo avvio, da cui viene generato l'atlante per gli avvii successivi
     private void loadCardImages()
     {
-        String[] suits = {"HEARTS", "DIAMONDS", "CLUBS", "SPADES"};
-        String[] values = {"ACE", "TWO", "THREE", "FOUR", "FIVE", "SIX", "SEVEN", "EIGHT", "NINE", "TEN", "JACK", "QUEEN", "KING"};
-
-        // Carica tutte le immagini per ogni combinazione di valore e seme
-        for (String suit : suits)
+        Properties index = isAtlasOutdated() ? null : readAtlasIndex();
+        BufferedImage atlas = index != null ? readImage(IMAGE_PATH + ATLAS_IMAGE_NAME) : null;
+        if (atlas == null)
         {
-            for (String value : values)
+            index = new Properties();
+            atlas = buildAtlas(index);
+            String missing = index.getProperty("missing");
+            if (missing.isEmpty())
+            {
+                writeAtlas(atlas, index);
+            } else
             {
-                String cardName = value + " of " + suit;
-                String imagePath = IMAGE_PATH + cardName + ".png";
-                ImageIcon imageIcon = new ImageIcon(imagePath);
+                // Un atlante incompleto non viene salvato, così che al prossimo avvio si riprovi a leggere le immagini
+                System.err.println("Immagini delle carte mancanti (celle " + missing + "): l'atlante non viene salvato");
+            }
+        }
 
-                // Controlla se l'immagine è caricata correttamente
-                if (imageIcon.getIconWidth() == -1)
+        // Ogni carta è una sotto-immagine che condivide i pixel dell'atlante
+        for (Suit suit : Suit.values())
+        {
+            for (Value value : Value.values())
+            {
+                int ordinal = Card.of(suit, value).getOrdinal();
+                if (!isMissing(index, ordinal))
                 {
-                    //System.err.println("Errore caricamento immagine: " + imagePath);
-                } else
+                    ImageIcon imageIcon = new ImageIcon(cell(atlas, ordinal));
+                    cardImages.put(value.name() + " of " + suit.name(), imageIcon); // Salva l'immagine nella mappa
+                    imagesByOrdinal[ordinal] = imageIcon;
+                }
+            }
+        }
+        backImage = isMissing(index, BACK_CELL) ? new ImageIcon() : new ImageIcon(cell(atlas, BACK_CELL));
+    }
+
+    // Decodifica le singole immagini e le ridimensiona nelle celle dell'atlante
+    private BufferedImage buildAtlas(Properties index)
+    {
+        int rows = (BACK_CELL + ATLAS_COLUMNS) / ATLAS_COLUMNS;
+        BufferedImage atlas = new BufferedImage(ATLAS_COLUMNS * CELL_WIDTH, rows * CELL_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = atlas.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        StringBuilder missing = new StringBuilder();
+        for (Suit suit : Suit.values())
+        {
+            for (Value value : Value.values())
+            {
+                drawCell(g, IMAGE_PATH + cardImageName(suit, value), Card.of(suit, value).getOrdinal(), missing);
+            }
+        }
+        drawCell(g, IMAGE_PATH + BACK_IMAGE_NAME, BACK_CELL, missing);
+        g.dispose();
+
+        index.setProperty("version", Integer.toString(ATLAS_VERSION));
+        index.setProperty("columns", Integer.toString(ATLAS_COLUMNS));
+        index.setProperty("cellWidth", Integer.toString(CELL_WIDTH));
+        index.setProperty("cellHeight", Integer.toString(CELL_HEIGHT));
+        index.setProperty("missing", missing.toString());
+        return atlas;
+    }
+
+    private void drawCell(Graphics2D g, String imagePath, int cell, StringBuilder missing)
+    {
+        BufferedImage image = readImage(imagePath);
+        if (image == null)
+        {
+            missing.append(missing.length() > 0 ? "," : "").append(cell);
+            return;
+        }
+        g.drawImage(image, cell % ATLAS_COLUMNS * CELL_WIDTH, cell / ATLAS_COLUMNS * CELL_HEIGHT, CELL_WIDTH, CELL_HEIGHT, null);
+    }
+
+    private static BufferedImage cell(BufferedImage atlas, int cell)
+    {
+        return atlas.getSubimage(cell % ATLAS_COLUMNS * CELL_WIDTH, cell / ATLAS_COLUMNS * CELL_HEIGHT, CELL_WIDTH, CELL_HEIGHT);
+    }
+
+    private static boolean isMissing(Properties index, int cell)
+    {
+        String missing = "," + index.getProperty("missing", "") + ",";
+        return missing.contains("," + cell + ",");
+    }
+
+    // Legge l'indice dell'atlante, oppure null se manca o non corrisponde al formato attuale
+    private Properties readAtlasIndex()
+    {
+        if (!resources.exists(IMAGE_PATH + ATLAS_INDEX_NAME))
+        {
+            return null;
+        }
+        Properties index = new Properties();
+        try (InputStream in = resources.openStream(IMAGE_PATH + ATLAS_INDEX_NAME))
+        {
+            index.load(in);
+        } catch (IOException e)
+        {
+            return null;
+        }
+        boolean current = Integer.toString(ATLAS_VERSION).equals(index.getProperty("version"))
+                && Integer.toString(ATLAS_COLUMNS).equals(index.getProperty("columns"))
+                && Integer.toString(CELL_WIDTH).equals(index.getProperty("cellWidth"))
+                && Integer.toString(CELL_HEIGHT).equals(index.getProperty("cellHeight"))
+                && index.getProperty("missing", "").isEmpty(); // Un atlante incompleto va sempre rigenerato
+        return current ? index : null;
+    }
+
+    // Durante lo sviluppo, true se una delle singole immagini è più recente dell'indice salvato:
+    // l'atlante va rigenerato perché un'immagine è stata corretta o sostituita
+    private static boolean isAtlasOutdated()
+    {
+        Path indexFile = ATLAS_DIRECTORY.resolve(ATLAS_INDEX_NAME);
+        if (!Files.isRegularFile(indexFile))
+        {
+            return false;
+        }
+        try
+        {
+            FileTime built = Files.getLastModifiedTime(indexFile);
+            for (String name : sourceImageNames())
+            {
+                Path source = ATLAS_DIRECTORY.resolve(name);
+                if (Files.isRegularFile(source) && Files.getLastModifiedTime(source).compareTo(built) > 0)
                 {
-                    cardImages.put(cardName, imageIcon); // Salva l'immagine nella mappa
-                    //System.out.println("Immagine caricata correttamente: " + imagePath);
+                    return true;
                 }
             }
+            return false;
+        } catch (IOException e)
+        {
+            return true;
+        }
+    }
+
+    // Risorse lette da questa classe quando l'atlante è già stato generato, da includere nel pacchetto
+    static List<String> resourceNames()
+    {
+        return List.of(IMAGE_PATH + ATLAS_IMAGE_NAME, IMAGE_PATH + ATLAS_INDEX_NAME, IMAGE_PATH + BACK_IMAGE_NAME);
+    }
+
+    // Nome del file dell'immagine di una carta, ad esempio "ACE of SPADES.png"
+    private static String cardImageName(Suit suit, Value value)
+    {
+        return value.name() + " of " + suit.name() + ".png";
+    }
+
+    // Nomi delle singole immagini da cui si compone l'atlante: le carte e il retro
+    private static List<String> sourceImageNames()
+    {
+        List<String> names = new ArrayList<>(BACK_CELL + 1);
+        for (Suit suit : Suit.values())
+        {
+            for (Value value : Value.values())
+            {
+                names.add(cardImageName(suit, value));
+            }
+        }
+        names.add(BACK_IMAGE_NAME);
+        return names;
+    }
+
+    // Salva l'atlante e il suo indice nella cartella delle immagini dei sorgenti; se la cartella non c'è
+    // (ad esempio in un jar) o non è scrivibile, l'atlante resta solo in memoria
+    private static void writeAtlas(BufferedImage atlas, Properties index)
+    {
+        if (!Files.isDirectory(ATLAS_DIRECTORY))
+        {
+            return;
+        }
+        try
+        {
+            if (!ImageIO.write(atlas, "png", ATLAS_DIRECTORY.resolve(ATLAS_IMAGE_NAME).toFile()))
+            {
+                return;
+            }
+            // L'indice viene scritto solo dopo l'immagine
+            try (OutputStream out = Files.newOutputStream(ATLAS_DIRECTORY.resolve(ATLAS_INDEX_NAME)))
+            {
+                index.store(out, "Indice dell'atlante delle carte");
+            }
+        } catch (IOException e)
+        {
+            System.err.println("Impossibile salvare l'atlante delle carte: " + e.getMessage());
+        }
+    }
+
+    private BufferedImage readImage(String imagePath)
+    {
+        try (InputStream in = resources.openStream(imagePath))
+        {
+            return ImageIO.read(in);
+        } catch (IOException e)
+        {
+            return null;
         }
-        // Carica una sola volta l'immagine del retro della carta
-        String backImagePath = IMAGE_PATH + "BACK.png";
-        backImage = new ImageIcon(backImagePath);
     }
 
     // Metodo per ottenere l'immagine di una carta specifica
@@ -55,10 +266,61 @@ public class CardImage
         return cardImages.getOrDefault(cardName, null); // Restituisce l'immagine o null se non trovata
     }
 
+    // Metodo per ottenere l'immagine di una carta tramite il suo ordinale, senza costruire chiavi stringa
+    public ImageIcon getCardImage(Card card)
+    {
+        return imagesByOrdinal[card.getOrdinal()];
+    }
+
     // Metodo per ottenere l'immagine del retro della carta
     public ImageIcon getBackImage()
     {
         return backImage; // Restituisce sempre la stessa immagine per il retro della carta
     }
 
+    // Metodo per ottenere l'immagine di una carta alla dimensione indicata.
+    // L'immagine viene ridimensionata una sola volta, al primo utilizzo, e poi riutilizzata a ogni ridisegno
+    public ImageIcon getCardImage(Card card, int width, int height)
+    {
+        ImageIcon[] images = scaledImagesFor(width, height);
+        int ordinal = card.getOrdinal();
+        if (images[ordinal] == null)
+        {
+            images[ordinal] = scale(imagesByOrdinal[ordinal], width, height);
+        }
+        return images[ordinal];
+    }
+
+    // Metodo per ottenere l'immagine del retro della carta alla dimensione indicata, ridimensionata una sola volta
+    public ImageIcon getBackImage(int width, int height)
+    {
+        ImageIcon[] images = scaledImagesFor(width, height);
+        if (images[Card.DISTINCT_CARDS] == null)
+        {
+            images[Card.DISTINCT_CARDS] = scale(backImage, width, height);
+        }
+        return images[Card.DISTINCT_CARDS];
+    }
+
+    private ImageIcon[] scaledImagesFor(int width, int height)
+    {
+        return scaledImages.computeIfAbsent(width << 16 | height, size -> new ImageIcon[Card.DISTINCT_CARDS + 1]);
+    }
+
+    // Ridimensiona l'immagine con la stessa qualità di SCALE_SMOOTH e la copia in una BufferedImage,
+    // così che i ridisegni successivi siano semplici copie di pixel
+    private static ImageIcon scale(ImageIcon original, int width, int height)
+    {
+        if (original == null || original.getIconWidth() <= 0)
+        {
+            return original; // Immagine mancante: nulla da ridimensionare
+        }
+        Image scaled = original.getImage().getScaledInstance(width, height, Image.SCALE_SMOOTH);
+        BufferedImage buffered = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = buffered.createGraphics();
+        g.drawImage(new ImageIcon(scaled).getImage(), 0, 0, null); // ImageIcon attende il ridimensionamento
+        g.dispose();
+        return new ImageIcon(buffered);
+    }
+
 }
@@ -0,0 +1,176 @@
+package View;
+
+import Model.Card;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Pannello che mostra una mano di carte mantenendo i propri componenti da un aggiornamento all'altro.
+ * Il pannello ricorda le carte già mostrate:
+ * <ul>
+ *     <li>quando la mano cresce, crea solo le etichette delle nuove carte;</li>
+ *     <li>quando la carta coperta viene scoperta, cambia solo l'immagine della sua etichetta;</li>
+ *     <li>la mano viene ricostruita da capo solo quando non continua quella mostrata, ad esempio a un nuovo round.</li>
+ * </ul>
+ * Con {@link OverlapLayout} ogni nuova carta diventa il primo componente. Il layout dispone i componenti
+ * dall'ultimo al primo, quindi le carte già mostrate non si spostano e la nuova viene disegnata sopra di esse.
+ * Con un {@link FlowLayout} le carte vanno allineate a sinistra, così che le nuove si aggiungano a destra.
+ * <p>
+ * Il pannello riserva lo spazio per un numero fisso di carte, per cui i suoi limiti non cambiano quando
+ * la mano cresce: una nuova carta viene disposta senza ridisporre i contenitori e viene ridisegnata solo
+ * l'area che occupa. Una mano più lunga dello spazio riservato lo allarga una volta per tutte.
+ * Va usato solo dal thread di Swing.
+ */
+public class HandPanel extends JPanel
+{
+    /** Indice da usare quando nessuna carta della mano è coperta. */
+    public static final int NO_HIDDEN_CARD = -1;
+
+    private final Supplier<CardImage> images;
+    private final int cardWidth;
+    private final int cardHeight;
+    private final boolean stacked; // true con OverlapLayout: le nuove carte vanno in testa ai componenti
+    private final List<Card> cards = new ArrayList<>(); // Carte mostrate, in ordine di distribuzione
+    private final List<JLabel> labels = new ArrayList<>(); // Etichetta di ogni carta, nello stesso ordine
+    private int hiddenIndex = NO_HIDDEN_CARD;
+    private int reservedCards; // Carte per cui è riservato lo spazio; cresce con la mano più lunga e non cala mai
+
+    /**
+     * @param images        Le immagini delle carte, richieste solo al primo utilizzo.
+     * @param cardWidth     La larghezza delle carte.
+     * @param cardHeight    L'altezza delle carte.
+     * @param layout        La disposizione delle carte: un {@link OverlapLayout} o un {@link FlowLayout}.
+     * @param reservedCards Il numero di carte per cui riservare lo spazio.
+     * @throws IllegalArgumentException se la disposizione non è supportata.
+     */
+    public HandPanel(Supplier<CardImage> images, int cardWidth, int cardHeight, LayoutManager layout, int reservedCards)
+    {
+        super(layout);
+        if (!(layout instanceof OverlapLayout) && !(layout instanceof FlowLayout))
+        {
+            throw new IllegalArgumentException("Unsupported hand layout: " + layout);
+        }
+        this.images = images;
+        this.cardWidth = cardWidth;
+        this.cardHeight = cardHeight;
+        this.stacked = layout instanceof OverlapLayout;
+        this.reservedCards = reservedCards;
+        setOpaque(false);
+    }
+
+    /**
+     * @return Lo spazio riservato alla mano, indipendente dal numero di carte mostrate.
+     */
+    @Override
+    public Dimension getPreferredSize()
+    {
+        if (isPreferredSizeSet())
+        {
+            return super.getPreferredSize();
+        }
+        int count = Math.max(reservedCards, cards.size());
+        if (stacked)
+        {
+            int overlap = ((OverlapLayout) getLayout()).getOverlap();
+            return new Dimension(cardWidth, count * (cardHeight - overlap) + overlap);
+        }
+        FlowLayout flow = (FlowLayout) getLayout();
+        return new Dimension(count * (cardWidth + flow.getHgap()) + flow.getHgap(), cardHeight + 2 * flow.getVgap());
+    }
+
+    /**
+     * Mostra una mano con tutte le carte scoperte.
+     *
+     * @param hand Le carte della mano.
+     */
+    public void showCards(List<Card> hand)
+    {
+        showCards(hand, NO_HIDDEN_CARD);
+    }
+
+    /**
+     * Mostra una mano, aggiornando solo ciò che è cambiato rispetto a quella mostrata.
+     *
+     * @param hand            Le carte della mano; la lista viene copiata.
+     * @param hiddenCardIndex L'indice della carta da mostrare coperta, oppure {@link #NO_HIDDEN_CARD}.
+     */
+    public void showCards(List<Card> hand, int hiddenCardIndex)
+    {
+        int shown = cards.size();
+        if (hand.size() < shown || !hand.subList(0, shown).equals(cards))
+        {
+            clear();
+            shown = 0;
+        }
+
+        if (hiddenIndex != hiddenCardIndex)
+        {
+            int previous = hiddenIndex;
+            hiddenIndex = hiddenCardIndex;
+            refreshCard(previous);
+            refreshCard(hiddenCardIndex);
+        }
+
+        for (int i = shown; i < hand.size(); i++)
+        {
+            appendCard(hand.get(i));
+        }
+    }
+
+    /**
+     * Rimuove tutte le carte dal pannello.
+     */
+    public void clear()
+    {
+        if (labels.isEmpty())
+        {
+            return;
+        }
+        removeAll();
+        cards.clear();
+        labels.clear();
+        hiddenIndex = NO_HIDDEN_CARD;
+        repaint(); // Lo spazio riservato resta: basta ridisegnare il pannello vuoto
+    }
+
+    private void appendCard(Card card)
+    {
+        cards.add(card);
+        JLabel label = new JLabel(iconFor(cards.size() - 1));
+        labels.add(label);
+        add(label, stacked ? 0 : -1);
+        if (cards.size() > reservedCards)
+        {
+            // Mano più lunga dello spazio riservato: il pannello si allarga e i contenitori vanno ridisposti
+            reservedCards = cards.size();
+            revalidate();
+            repaint();
+            return;
+        }
+        // I limiti del pannello non cambiano: basta disporne i componenti, con le carte già mostrate
+        // che restano dove sono, e ridisegnare solo l'area della nuova carta
+        validate();
+        repaint(label.getBounds());
+    }
+
+    private void refreshCard(int index)
+    {
+        if (index >= 0 && index < labels.size())
+        {
+            // Stessa dimensione dell'immagine precedente: viene ridisegnata solo questa etichetta
+            labels.get(index).setIcon(iconFor(index));
+        }
+    }
+
+    private ImageIcon iconFor(int index)
+    {
+        CardImage cardImages = images.get();
+        return index == hiddenIndex
+                ? cardImages.getBackImage(cardWidth, cardHeight)
+                : cardImages.getCardImage(cards.get(index), cardWidth, cardHeight);
+    }
+}
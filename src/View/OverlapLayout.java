@@ -9,6 +9,10 @@ public class OverlapLayout implements LayoutManager {
         this.overlap = overlap;
     }
 
+    public int getOverlap() {
+        return overlap;
+    }
+
     @Override
     public void addLayoutComponent(String name, Component comp) {}
 
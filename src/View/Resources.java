@@ -0,0 +1,277 @@
+package View;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Accesso unificato alle risorse del gioco (immagini e suoni), indicate con nomi relativi
+ * come {@code "Images/BACK.png"} o {@code "Music/BackGroundMusic.wav"}.
+ * Ogni risorsa viene cercata, nell'ordine:
+ * <ol>
+ *     <li>nel pacchetto di risorse, se presente: un unico file mappato in memoria con {@link FileChannel#map},
+ *     così che l'avvio faccia una sola lettura sequenziale invece di un'apertura di file per risorsa;</li>
+ *     <li>nel classpath, per cui un unico jar eseguibile contiene già tutto;</li>
+ *     <li>nella cartella {@code src/} della directory di lavoro, come durante lo sviluppo.</li>
+ * </ol>
+ * Il pacchetto si crea con {@code java JBLackJack --pack-assets[=file]}. Un'istanza è thread-safe.
+ */
+public class Resources
+{
+    /** Nome predefinito del pacchetto di risorse nella directory di lavoro. */
+    public static final String DEFAULT_BUNDLE = "assets.bundle";
+
+    /** Proprietà di sistema con cui indicare un pacchetto diverso da quello predefinito. */
+    public static final String BUNDLE_PROPERTY = "jblackjack.bundle";
+
+    private static final String SOURCE_DIRECTORY = "src/";
+    private static final int MAGIC = 0x4A424A42; // "JBJB"
+    private static final int VERSION = 1;
+
+    private final MappedByteBuffer bundle; // null se non c'è un pacchetto
+    private final Map<String, long[]> entries = new HashMap<>(); // Nome -> {posizione, lunghezza}
+
+    private Resources(MappedByteBuffer bundle) throws IOException
+    {
+        this.bundle = bundle;
+        if (bundle != null)
+        {
+            readIndex();
+        }
+    }
+
+    /**
+     * Apre le risorse usando il pacchetto indicato dalla proprietà {@value #BUNDLE_PROPERTY},
+     * oppure {@value #DEFAULT_BUNDLE} se esiste, oppure solo il classpath e la cartella dei sorgenti.
+     *
+     * @return Le risorse del gioco.
+     */
+    public static Resources open()
+    {
+        Path path = Path.of(System.getProperty(BUNDLE_PROPERTY, DEFAULT_BUNDLE));
+        if (Files.isRegularFile(path))
+        {
+            try
+            {
+                return open(path);
+            } catch (IOException e)
+            {
+                System.err.println("Pacchetto di risorse non valido, uso i file singoli: " + e.getMessage());
+            }
+        }
+        try
+        {
+            return new Resources(null);
+        } catch (IOException e)
+        {
+            throw new IllegalStateException(e); // Senza pacchetto non viene letto nulla
+        }
+    }
+
+    /**
+     * Apre le risorse a partire da un pacchetto.
+     *
+     * @param bundlePath Il pacchetto di risorse.
+     * @return Le risorse del gioco.
+     * @throws IOException se il pacchetto non è leggibile o non è valido.
+     */
+    public static Resources open(Path bundlePath) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(bundlePath, StandardOpenOption.READ))
+        {
+            // La mappatura resta valida anche dopo la chiusura del canale
+            return new Resources(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Legge per intero una risorsa.
+     *
+     * @param name Il nome della risorsa, ad esempio {@code "Images/BACK.png"}.
+     * @return Il contenuto della risorsa.
+     * @throws IOException se la risorsa non esiste o non è leggibile.
+     */
+    public byte[] read(String name) throws IOException
+    {
+        long[] entry = entries.get(name);
+        if (entry != null)
+        {
+            byte[] data = new byte[(int) entry[1]];
+            bundle.get((int) entry[0], data); // Lettura assoluta: sicura anche da più thread
+            return data;
+        }
+        try (InputStream in = Resources.class.getResourceAsStream("/" + name))
+        {
+            if (in != null)
+            {
+                return in.readAllBytes();
+            }
+        }
+        Path file = Path.of(SOURCE_DIRECTORY, name);
+        if (Files.isRegularFile(file))
+        {
+            return Files.readAllBytes(file);
+        }
+        throw new FileNotFoundException("Resource not found: " + name);
+    }
+
+    /**
+     * Apre una risorsa come stream in memoria.
+     *
+     * @param name Il nome della risorsa.
+     * @return Lo stream con il contenuto della risorsa.
+     * @throws IOException se la risorsa non esiste o non è leggibile.
+     */
+    public InputStream openStream(String name) throws IOException
+    {
+        return new ByteArrayInputStream(read(name));
+    }
+
+    /**
+     * @param name Il nome della risorsa.
+     * @return {@code true} se la risorsa è disponibile.
+     */
+    public boolean exists(String name)
+    {
+        return entries.containsKey(name) || Resources.class.getResource("/" + name) != null
+                || Files.isRegularFile(Path.of(SOURCE_DIRECTORY, name));
+    }
+
+    /**
+     * @return {@code true} se le risorse vengono lette da un pacchetto mappato in memoria.
+     */
+    public boolean isBundled()
+    {
+        return bundle != null;
+    }
+
+    /**
+     * Elenca le risorse che il gioco legge davvero: l'atlante delle carte con il suo indice e il retro,
+     * lo sfondo, l'icona e i suoni. Le singole immagini delle carte servono solo a generare l'atlante.
+     *
+     * @return I nomi delle risorse da includere nel pacchetto.
+     */
+    private static List<String> bundledResources()
+    {
+        List<String> names = new ArrayList<>(CardImage.resourceNames());
+        names.addAll(AssetLoader.resourceNames());
+        return names;
+    }
+
+    /**
+     * Crea un pacchetto con le risorse elencate da {@link #bundledResources()}.
+     * Il formato è un indice (nome, posizione e lunghezza di ogni risorsa) seguito dai contenuti in sequenza.
+     *
+     * @param sourceDirectory La cartella che contiene {@code Images} e {@code Music}.
+     * @param bundlePath      Il file del pacchetto da creare.
+     * @return Il numero di risorse nel pacchetto.
+     * @throws IOException se una risorsa manca o non è leggibile o il pacchetto non può essere scritto.
+     */
+    public static int pack(Path sourceDirectory, Path bundlePath) throws IOException
+    {
+        List<String> names = bundledResources();
+        for (String name : names)
+        {
+            if (!Files.isRegularFile(sourceDirectory.resolve(name)))
+            {
+                throw new FileNotFoundException("Resource not found: " + sourceDirectory.resolve(name));
+            }
+        }
+
+        // Dimensione dell'intestazione e dell'indice, per calcolare la posizione dei contenuti
+        long position = 3 * Integer.BYTES;
+        for (String name : names)
+        {
+            position += 2 + name.getBytes(StandardCharsets.UTF_8).length + Long.BYTES + Integer.BYTES;
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(bundlePath))))
+        {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(names.size());
+            for (String name : names)
+            {
+                long size = Files.size(sourceDirectory.resolve(name));
+                out.writeUTF(name);
+                out.writeLong(position);
+                out.writeInt((int) size);
+                position += size;
+            }
+            for (String name : names)
+            {
+                Files.copy(sourceDirectory.resolve(name), out);
+            }
+        }
+        return names.size();
+    }
+
+    private void readIndex() throws IOException
+    {
+        ByteBuffer index = bundle.duplicate();
+        try
+        {
+            if (index.getInt() != MAGIC || index.getInt() != VERSION)
+            {
+                throw new IOException("Not a resource bundle");
+            }
+            int count = index.getInt();
+            for (int i = 0; i < count; i++)
+            {
+                byte[] name = new byte[index.getShort() & 0xFFFF];
+                index.get(name);
+                long offset = index.getLong();
+                int length = index.getInt();
+                if (offset < 0 || length < 0 || offset + length > bundle.capacity())
+                {
+                    throw new IOException("Corrupted resource bundle");
+                }
+                entries.put(new String(name, StandardCharsets.UTF_8), new long[]{offset, length});
+            }
+        } catch (BufferUnderflowException e)
+        {
+            throw new IOException("Truncated resource bundle", e);
+        }
+    }
+
+    /**
+     * Crea il pacchetto di risorse dalla riga di comando ({@code --pack-assets[=file]}).
+     * Prima genera l'atlante delle carte, così che anche questo finisca nel pacchetto.
+     *
+     * @param args Gli argomenti della riga di comando.
+     * @throws IOException se il pacchetto non può essere scritto.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        String bundle = DEFAULT_BUNDLE;
+        for (String arg : args)
+        {
+            if (arg.startsWith("--pack-assets="))
+            {
+                bundle = arg.substring("--pack-assets=".length());
+            }
+        }
+        if (!Files.isDirectory(Path.of(SOURCE_DIRECTORY)))
+        {
+            System.err.println("Cartella " + SOURCE_DIRECTORY + " non trovata: eseguire dalla cartella del progetto");
+            return;
+        }
+        new CardImage(new Resources(null)); // Genera l'atlante dalle singole immagini, se manca
+        int count = pack(Path.of(SOURCE_DIRECTORY), Path.of(bundle));
+        System.out.println("Pacchetto di risorse creato: " + bundle + " (" + count + " risorse)");
+    }
+}